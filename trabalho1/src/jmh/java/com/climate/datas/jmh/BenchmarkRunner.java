@@ -0,0 +1,28 @@
+package com.climate.datas.jmh;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/*
+ * Ponto de entrada do benchmarks.jar (mvn -Pjmh package).
+ *
+ * Aceita as mesmas opções da linha de comando do JMH (filtro, -f, -wi, -i, -rf json...)
+ * e sempre adiciona o profiler de GC, que reporta a alocação por operação
+ * (gc.alloc.rate.norm) ao lado de ops/s.
+ *     java -jar target/benchmarks.jar DataBase -rf json -rff resultado.json
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
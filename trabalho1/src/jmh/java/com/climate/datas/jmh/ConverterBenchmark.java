@@ -0,0 +1,52 @@
+package com.climate.datas.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.climate.datas.utils.ClimateData;
+import com.climate.datas.utils.DataConverter;
+import com.climate.datas.utils.drone.DroneId;
+import com.climate.datas.utils.drone.RegionFormat;
+
+// Conversão do texto de cada região para o formato padrão (User) e para ClimateData (Server)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConverterBenchmark {
+
+    @Param({"NORTE", "SUL", "LESTE", "OESTE"})
+    private DroneId droneId;
+
+    private RegionFormat format;
+    private String rawData;
+
+    @Setup
+    public void setup() {
+        format = RegionFormat.fromDroneId(droneId);
+        rawData = Fixtures.rawData(droneId);
+    }
+
+    @Benchmark
+    public String convertToStandardFormat() {
+        return DataConverter.convertToStandardFormat(rawData);
+    }
+
+    @Benchmark
+    public ClimateData parse() {
+        return DataConverter.parse(rawData, format);
+    }
+}
@@ -0,0 +1,100 @@
+package com.climate.datas.jmh;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.climate.datas.database.DataBase;
+import com.climate.datas.database.RetentionPolicy;
+import com.climate.datas.utils.DataConverter;
+import com.climate.datas.utils.drone.DroneId;
+
+/*
+ * Escrita concorrente no DataBase (sem WAL) com 1, 4 e 16 threads.
+ *
+ * O banco é recriado a cada iteração e limitado por retenção, para que o
+ * tamanho das séries não cresça sem fim durante a medição. Cada thread escreve
+ * em um drone diferente (como os servidores, um por conexão).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataBaseBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+        DataBase dataBase;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            dataBase = new DataBase();
+            dataBase.setRetention(new RetentionPolicy(0, 100_000, 0));
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() {
+            dataBase.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Writer {
+        private static final AtomicInteger NEXT = new AtomicInteger();
+
+        DroneId droneId;
+        String droneName;
+        String standardData;
+        long timestamp;
+
+        @Setup
+        public void setup() {
+            droneId = DroneId.fromOrdinal(NEXT.getAndIncrement() % DroneId.values().length);
+            droneName = droneId.getValue();
+            standardData = DataConverter.convertToStandardFormat(Fixtures.rawData(droneId));
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void saveValues1(Shared shared, Writer writer) {
+        save(shared, writer);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void saveValues4(Shared shared, Writer writer) {
+        save(shared, writer);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void saveValues16(Shared shared, Writer writer) {
+        save(shared, writer);
+    }
+
+    // Caminho antigo: texto no formato padrão, interpretado dentro do saveData
+    @Benchmark
+    @Threads(4)
+    public void saveText4(Shared shared, Writer writer) {
+        shared.dataBase.saveData(writer.droneName, writer.standardData);
+    }
+
+    private static void save(Shared shared, Writer writer) {
+        shared.dataBase.saveData(writer.droneId, ++writer.timestamp, 25.5, 60.2, 1013.25, 800.0);
+    }
+}
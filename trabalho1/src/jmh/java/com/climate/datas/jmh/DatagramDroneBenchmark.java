@@ -0,0 +1,65 @@
+package com.climate.datas.jmh;
+
+import java.net.DatagramPacket;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.climate.datas.utils.drone.DatagramDrone;
+
+// Serialização da leitura do drone: JSON (Jackson) e binário (DroneCodec), nos dois sentidos
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DatagramDroneBenchmark {
+
+    private DatagramDrone drone;
+    private DatagramPacket jsonPacket;
+    private DatagramPacket binaryPacket;
+
+    @Setup
+    public void setup() {
+        drone = Fixtures.drone();
+        byte[] json = drone.toBytes();
+        byte[] binary = drone.toBinary();
+        jsonPacket = new DatagramPacket(json, json.length);
+        binaryPacket = new DatagramPacket(binary, binary.length);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return drone.toJson();
+    }
+
+    @Benchmark
+    public byte[] toBytes() {
+        return drone.toBytes();
+    }
+
+    @Benchmark
+    public byte[] toBinary() {
+        return drone.toBinary();
+    }
+
+    @Benchmark
+    public DatagramDrone fromPacketJson() {
+        return DatagramDrone.fromPacket(jsonPacket);
+    }
+
+    @Benchmark
+    public DatagramDrone fromPacketBinary() {
+        return DatagramDrone.fromPacket(binaryPacket);
+    }
+}
@@ -0,0 +1,31 @@
+package com.climate.datas.jmh;
+
+import com.climate.datas.utils.drone.DatagramDrone;
+import com.climate.datas.utils.drone.DroneId;
+import com.climate.datas.utils.drone.RegionFormat;
+
+// Dados fixos usados pelos benchmarks, iguais em todas as execuções
+final class Fixtures {
+    private static final double PRESSAO = 1013.25;
+    private static final double RADIACAO = 812.4;
+    private static final double TEMPERATURA = 27.6;
+    private static final double UMIDADE = 64.1;
+
+    private Fixtures() {}
+
+    static String[] values() {
+        return new String[]{
+                String.valueOf(PRESSAO), String.valueOf(RADIACAO), String.valueOf(TEMPERATURA), String.valueOf(UMIDADE)
+        };
+    }
+
+    static String rawData(DroneId droneId) {
+        return RegionFormat.fromDroneId(droneId).format(values());
+    }
+
+    static DatagramDrone drone() {
+        DatagramDrone drone = new DatagramDrone();
+        drone.setValues(DroneId.LESTE, 42, 1_700_000_000_000L, PRESSAO, RADIACAO, TEMPERATURA, UMIDADE);
+        return drone;
+    }
+}
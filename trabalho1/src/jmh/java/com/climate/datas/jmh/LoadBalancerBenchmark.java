@@ -0,0 +1,81 @@
+package com.climate.datas.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.climate.datas.loadbalancer.GroupSelector;
+import com.climate.datas.utils.ServerInfo;
+
+// Escolha do grupo multicast do LoadBalancer (GroupSelector: anel de hash consistente e round-robin), sem rede
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoadBalancerBenchmark {
+    private static final int USERS = 1024;
+
+    @Param({"2", "8"})
+    private int groups;
+
+    @Param({"160"})
+    private int vnodes;
+
+    private GroupSelector selector;
+    private String[] userIds;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup
+    public void setup() {
+        List<ServerInfo> servers = new ArrayList<>();
+        for (int i = 0; i < groups; i++) {
+            servers.add(new ServerInfo("230.0.0." + (i + 1), 55555));
+        }
+        selector = new GroupSelector(servers, vnodes);
+        userIds = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            userIds[i] = String.valueOf(i);
+        }
+    }
+
+    @Benchmark
+    public ServerInfo consistentHash(Cursor cursor) {
+        return selector.consistentHash(userIds[cursor.next++ & (USERS - 1)]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ServerInfo consistentHash4(Cursor cursor) {
+        return selector.consistentHash(userIds[cursor.next++ & (USERS - 1)]);
+    }
+
+    @Benchmark
+    public ServerInfo roundRobin() {
+        return selector.roundRobin();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ServerInfo roundRobin4() {
+        return selector.roundRobin();
+    }
+}
@@ -0,0 +1,45 @@
+package com.climate.datas.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.climate.datas.utils.drone.DroneId;
+import com.climate.datas.utils.drone.RegionFormat;
+
+// Montagem do texto no formato de cada região (DatagramDrone.getData)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegionFormatBenchmark {
+
+    @Param({"NORTE", "SUL", "LESTE", "OESTE"})
+    private DroneId droneId;
+
+    private RegionFormat format;
+    private String[] values;
+
+    @Setup
+    public void setup() {
+        format = RegionFormat.fromDroneId(droneId);
+        values = Fixtures.values();
+    }
+
+    @Benchmark
+    public String format() {
+        return format.format(values);
+    }
+}
@@ -0,0 +1,277 @@
+package com.climate.datas.bench;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.climate.datas.database.DataBase;
+import com.climate.datas.datacenter.DataCenter;
+import com.climate.datas.datacenter.ReceiveMode;
+import com.climate.datas.datacenter.RoutingStrategy;
+import com.climate.datas.drone.FleetLoadGenerator;
+import com.climate.datas.drone.RampProfile;
+import com.climate.datas.loadbalancer.LoadBalancer;
+import com.climate.datas.server.Server;
+import com.climate.datas.user.User;
+import com.climate.datas.utils.JsonSerializable;
+import com.climate.datas.utils.Loggable;
+import com.climate.datas.utils.ServerInfo;
+import com.climate.datas.utils.common.IoMode;
+import com.climate.datas.utils.common.LatencyHistogram;
+import com.climate.datas.utils.common.NetworkConfig;
+import com.climate.datas.utils.common.RoleMetrics;
+import com.climate.datas.utils.drone.DatagramDrone;
+import com.climate.datas.utils.drone.DroneBatchPolicy;
+import com.climate.datas.utils.user.UserResponseEnum;
+
+/*
+ * Benchmark de ponta a ponta em um único processo, na interface de loopback.
+ *
+ * Sobe Servers, LoadBalancer, DataCenter e Users no mesmo JVM, com portas e
+ * grupos multicast próprios (NetworkConfig.loopback), e gera a carga dos drones
+ * com o FleetLoadGenerator. O instante de geração de cada leitura (por drone da
+ * frota e sequência) é guardado e comparado com a chegada no User, dando a latência
+ * drone -> usuário com o relógio monotônico do processo.
+ *
+ * Configuração por propriedades (padrões entre parênteses):
+ *   -Dbench.port (46000): DataCenter na porta, LoadBalancer na seguinte e um Server por porta depois dela
+ *   -Dbench.servers (2)  -Dbench.users (4)  -Dbench.balancing=hashing|rr (rr, que cobre todos os grupos)
+ *   -Dbench.interface (lo)  -Dbench.drain segundos sem novas entregas para encerrar (2)
+ *   -Dbench.output (loopback-result.json)  -Dbench.quiet (true): descarta a saída dos papéis no console
+ *   Carga: -Dfleet.drones, -Dfleet.rate, -Dfleet.duration, -Dfleet.ramp, -Dfleet.rampSeconds,
+ *   -Dfleet.senders, -Dfleet.batch, -Ddrone.model, -Ddrone.seed (ver FleetLoadGenerator)
+ *
+ * O arquivo de resultado (JSON) traz a configuração usada, as taxas, os percentis
+ * e a latência de cada etapa (RoleMetrics) de cada papel.
+ */
+public class LoopbackBenchmark implements Loggable {
+    private static final int WINDOW = 1 << 20;                  // Leituras acompanhadas, na ordem de envio da frota
+    private static final String[] RECORDED_PREFIXES = {"bench.", "fleet.", "drone.", "net.", "datacenter.", "server.", "database.", "loadbalancer.", "io."};
+
+    private final NetworkConfig network;
+    private final int users;
+    private final UserResponseEnum balancing;
+    private final long drainNanos;
+
+    private final AtomicLongArray sentAt = new AtomicLongArray(WINDOW);     // nanoTime da geração por posição
+    private final AtomicLongArray delivered = new AtomicLongArray(WINDOW);  // Última leitura entregue por posição
+    private volatile int drones = 1;                            // Tamanho da frota, para numerar as leituras
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder deliveries = new LongAdder();       // Entregas a usuários (uma leitura pode ir a vários)
+    private final LongAdder unique = new LongAdder();           // Leituras entregues a pelo menos um usuário
+    private final AtomicLong lastDelivery = new AtomicLong();
+
+    public LoopbackBenchmark(NetworkConfig network, int users, UserResponseEnum balancing, long drainSeconds) {
+        if (users < network.groups().size()) {
+            throw new IllegalArgumentException("São necessários ao menos " + network.groups().size() + " usuários, um por grupo.");
+        }
+        this.network = network;
+        this.users = users;
+        this.balancing = balancing;
+        this.drainNanos = TimeUnit.SECONDS.toNanos(drainSeconds);
+    }
+
+    public static LoopbackBenchmark fromProperties() {
+        NetworkConfig loopback = NetworkConfig.loopback(Integer.getInteger("bench.port", 46000), Integer.getInteger("bench.servers", 2));
+        NetworkConfig network = new NetworkConfig(loopback.host(), System.getProperty("bench.interface", "lo"),
+                loopback.dataCenter(), loopback.balancerPort(), loopback.groups());
+        String balancing = System.getProperty("bench.balancing", "rr");
+        return new LoopbackBenchmark(network, Integer.getInteger("bench.users", 4),
+                "hashing".equalsIgnoreCase(balancing) ? UserResponseEnum.HASHING : UserResponseEnum.ROUND_ROBIN,
+                Long.getLong("bench.drain", 2));
+    }
+
+    // Número da leitura na frota: a frota envia em rodízio, então segue de perto a ordem de envio
+    private long readingNumber(int drone, long sequence) {
+        return (sequence - 1) * drones + drone + 1;
+    }
+
+    private void onReading(int drone, long sequence, long nanoTime) {
+        sentAt.set((int) (readingNumber(drone, sequence) & (WINDOW - 1)), nanoTime);
+    }
+
+    private void onDelivered(DatagramDrone reading) {
+        long now = System.nanoTime();
+        long number = readingNumber(FleetLoadGenerator.droneOf(reading.getDroneId(), reading.getMember()), reading.getSequence());
+        int slot = (int) (number & (WINDOW - 1));
+        long start = sentAt.get(slot);
+        if (start == 0) {
+            return;
+        }
+        latency.record(now - start);
+        deliveries.increment();
+        if (delivered.getAndSet(slot, number) != number) {
+            unique.increment();
+        }
+        lastDelivery.accumulateAndGet(now, Math::max);
+    }
+
+    public Result run() throws Exception {
+        ExecutorService roles = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "loopback-role");
+            thread.setDaemon(true);
+            return thread;
+        });
+        DataBase dataBase = new DataBase();
+        List<Server> servers = new ArrayList<>();
+        List<User> connected = new ArrayList<>();
+        LoadBalancer loadBalancer = null;
+        DataCenter dataCenter = null;
+
+        try {
+            for (ServerInfo group : network.groups()) {
+                Server server = new Server(group, dataBase, IoMode.fromProperty(), network);
+                servers.add(server);
+                roles.execute(server::start);
+            }
+            loadBalancer = new LoadBalancer(IoMode.fromProperty(), network);
+            roles.execute(loadBalancer::start);
+            dataCenter = new DataCenter(ReceiveMode.fromProperty(), RoutingStrategy.fromProperty(), network);
+            roles.execute(dataCenter::start);
+
+            for (int i = 1; i <= users; i++) {
+                User user = new User(i, network, balancing);
+                user.setListener(this::onDelivered);
+                connected.add(user);
+                roles.execute(user::start);
+            }
+            // Tempo para os usuários entrarem nos grupos antes da primeira leitura
+            Thread.sleep(500);
+
+            FleetLoadGenerator fleet = createFleet();
+            drones = fleet.getDrones();
+            fleet.setListener(this::onReading);
+            long start = System.nanoTime();
+            FleetLoadGenerator.Report report = fleet.run();
+            awaitDrain(report.sent());
+
+            long end = Math.max(lastDelivery.get(), start + 1);
+            Map<String, String> hops = new TreeMap<>();
+            recordHops(hops, dataCenter.getMetrics());
+            servers.forEach(server -> recordHops(hops, server.getMetrics()));
+            connected.forEach(user -> recordHops(hops, user.getMetrics()));
+            return new Result(Instant.now().toString(), Runtime.version().toString(), recordedConfig(), hops,
+                    report.sent(), report.datagrams(), report.errors(), unique.sum(), deliveries.sum(),
+                    report.sent() - unique.sum(), report.seconds(), report.rate(),
+                    unique.sum() / ((end - start) / 1e9),
+                    micros(latency.getMean()), micros(latency.percentile(50)), micros(latency.percentile(99)),
+                    micros(latency.percentile(99.9)), micros(latency.getMax()));
+        } finally {
+            connected.forEach(User::close);
+            if (dataCenter != null) {
+                dataCenter.close();
+            }
+            if (loadBalancer != null) {
+                loadBalancer.close();
+            }
+            servers.forEach(Server::close);
+            dataBase.close();
+            roles.shutdownNow();
+        }
+    }
+
+    private FleetLoadGenerator createFleet() throws IOException {
+        ServerInfo target = network.dataCenter();
+        return new FleetLoadGenerator(
+                Integer.getInteger("fleet.drones", 1000),
+                Double.parseDouble(System.getProperty("fleet.rate", "10000")),
+                Long.getLong("fleet.duration", 30),
+                RampProfile.fromValue(System.getProperty("fleet.ramp", RampProfile.CONSTANT.getValue())),
+                Long.getLong("fleet.rampSeconds", 0),
+                Integer.getInteger("fleet.senders", 4),
+                new InetSocketAddress(InetAddress.getByName(target.getHost()), target.getPort()),
+                DroneBatchPolicy.fromProperty("fleet.batch"),
+                network.networkInterface());
+    }
+
+    // Espera até tudo ser entregue ou até drainNanos sem nenhuma entrega nova
+    private void awaitDrain(long sent) throws InterruptedException {
+        long seen = unique.sum();
+        long idleSince = System.nanoTime();
+        while (seen < sent && System.nanoTime() - idleSince < drainNanos) {
+            Thread.sleep(50);
+            long now = unique.sum();
+            if (now != seen) {
+                seen = now;
+                idleSince = System.nanoTime();
+            }
+        }
+    }
+
+    // Propriedades que influenciam o resultado, para que a execução possa ser repetida
+    private Map<String, String> recordedConfig() {
+        Map<String, String> config = new TreeMap<>();
+        for (String name : System.getProperties().stringPropertyNames()) {
+            for (String prefix : RECORDED_PREFIXES) {
+                if (name.startsWith(prefix)) {
+                    config.put(name, System.getProperty(name));
+                }
+            }
+        }
+        config.put("resolved.network", network.toString());
+        config.put("resolved.users", String.valueOf(users));
+        config.put("resolved.balancing", balancing.name());
+        config.put("resolved.processors", String.valueOf(Runtime.getRuntime().availableProcessors()));
+        return config;
+    }
+
+    // Latência de cada etapa por papel (mesmos valores publicados no JMX)
+    private static void recordHops(Map<String, String> hops, RoleMetrics metrics) {
+        metrics.getHops().forEach(hop -> hops.put(metrics.getName() + "." + hop.getHop(), hop.getHistogram().toString()));
+    }
+
+    private static double micros(double nanos) {
+        return nanos / 1000.0;
+    }
+
+    public record Result(String finishedAt, String java, Map<String, String> config, Map<String, String> hops,
+                         long sent, long datagrams, long sendErrors, long delivered, long deliveries, long lost,
+                         double sendSeconds, double sendRate, double deliveredRate,
+                         double meanMicros, double p50Micros, double p99Micros, double p999Micros, double maxMicros)
+            implements JsonSerializable {
+
+        @Override
+        public String toString() {
+            return String.format("enviadas=%d entregues=%d (%.0f leituras/s) perdidas=%d entregas=%d | latência drone->usuário: "
+                            + "média=%.1fus p50=%.1fus p99=%.1fus p99.9=%.1fus máx=%.1fus",
+                    sent, delivered, deliveredRate, lost, deliveries, meanMicros, p50Micros, p99Micros, p999Micros, maxMicros);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        PrintStream console = System.out;
+        if (Boolean.parseBoolean(System.getProperty("bench.quiet", "true"))) {
+            // Os papéis imprimem cada leitura; no benchmark isso mediria o console, não o sistema
+            if (System.getProperty("log.console") == null) {
+                System.setProperty("log.console", "false");
+            }
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+        Result result;
+        try {
+            result = fromProperties().run();
+        } finally {
+            System.setOut(console);
+        }
+
+        Path output = Path.of(System.getProperty("bench.output", "loopback-result.json"));
+        Files.writeString(output, JsonSerializable.objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(result));
+        console.println(result);
+        console.println("Resultado gravado em " + output.toAbsolutePath());
+    }
+}
@@ -0,0 +1,20 @@
+package com.climate.datas.database;
+
+// Resultado de uma consulta agregada de uma métrica em uma janela de tempo
+public record Aggregate(long count, double min, double max, double sum) {
+    public static final Aggregate EMPTY = new Aggregate(0, Double.NaN, Double.NaN, 0);
+
+    public double average() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    public Aggregate merge(Aggregate other) {
+        if (other.count == 0) {
+            return this;
+        }
+        if (count == 0) {
+            return other;
+        }
+        return new Aggregate(count + other.count, Math.min(min, other.min), Math.max(max, other.max), sum + other.sum);
+    }
+}
@@ -1,36 +1,214 @@
 package com.climate.datas.database;
 
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
-public class DataBase {
-    private final Map<String, List<String>> database = new ConcurrentHashMap<>();
+import com.climate.datas.utils.ClimateData;
+import com.climate.datas.utils.RegionParser;
+import com.climate.datas.utils.drone.DroneId;
+
+/*
+ * Banco de dados em memória com uma série temporal colunar por drone.
+ *
+ * As leituras ficam em colunas double[] (temperatura, umidade, pressao, radiacao)
+ * e long[] (timestamp), sem boxing. A API com Strings no formato padrão
+ * [temperatura//umidade//pressao//radiacao] continua disponível para os
+ * chamadores antigos e converte na entrada e na saída.
+ *
+ * Opcionalmente cada leitura é gravada antes em um WriteAheadLog, que é
+ * relido na construção para recuperar os dados de uma execução anterior. A
+ * retenção é aplicada já durante a releitura, então a memória na recuperação
+ * fica no limite da RetentionPolicy e não no tamanho de todo o log.
+ */
+public class DataBase implements AutoCloseable {
+    // Parser reaproveitado por thread para a API com Strings (RegionParser não é thread-safe)
+    private static final ThreadLocal<RegionParser> PARSERS = ThreadLocal.withInitial(RegionParser::new);
+
+    private final DroneSeries[] series = new DroneSeries[DroneId.values().length];
+    private final WriteAheadLog wal;                // Durabilidade opcional (null = apenas memória)
+
+    public DataBase() {
+        for (DroneId droneId : DroneId.values()) {
+            series[droneId.getOrdinal()] = new DroneSeries(droneId);
+        }
+        this.wal = null;
+    }
+
+    public DataBase(WriteAheadLog wal) throws IOException {
+        this(wal, RetentionPolicy.UNLIMITED);
+    }
+
+    public DataBase(WriteAheadLog wal, RetentionPolicy retention) throws IOException {
+        for (DroneId droneId : DroneId.values()) {
+            series[droneId.getOrdinal()] = new DroneSeries(droneId);
+            series[droneId.getOrdinal()].setRetention(retention);
+        }
+        wal.replay((droneId, timestamp, temperatura, umidade, pressao, radiacao) ->
+                series[droneId.getOrdinal()].append(timestamp, temperatura, umidade, pressao, radiacao));
+        for (DroneSeries droneSeries : series) {
+            droneSeries.resetEvictionCounters();
+        }
+        // Segmentos só com leituras que a retenção já descartou não precisam mais ficar no disco
+        wal.setMaxAgeMillis(retention.maxAgeMillis());
+        this.wal = wal;
+    }
 
     public void saveData(String droneId, String data) {
         if (droneId == null || data == null) {
             throw new IllegalArgumentException("DroneId ou dados não podem ser nulos.");
         }
 
-        database.computeIfAbsent(droneId, _ -> Collections.synchronizedList(new ArrayList<>()))
-                .add(data);
+        RegionParser parser = PARSERS.get();
+        if (!parser.parseStandard(data)) {
+            throw new IllegalArgumentException("Dados fora do formato padrão [temperatura//umidade//pressao//radiacao]: " + data);
+        }
+
+        saveData(DroneId.fromValue(droneId), System.currentTimeMillis(),
+                parser.getTemperatura(), parser.getUmidade(), parser.getPressao(), parser.getRadiacao());
     }
 
+    public void saveData(DroneId droneId, long timestamp, ClimateData data) {
+        if (droneId == null || data == null) {
+            throw new IllegalArgumentException("DroneId ou dados não podem ser nulos.");
+        }
+        saveData(droneId, timestamp, data.temperatura(), data.umidade(), data.pressao(), data.radiacao());
+    }
+
+    public void saveData(DroneId droneId, long timestamp, double temperatura, double umidade, double pressao, double radiacao) {
+        if (droneId == null) {
+            throw new IllegalArgumentException("DroneId não pode ser nulo.");
+        }
+        if (wal != null) {
+            wal.append(droneId, timestamp, temperatura, umidade, pressao, radiacao);
+        }
+        series[droneId.getOrdinal()].append(timestamp, temperatura, umidade, pressao, radiacao);
+    }
+
+    public void setRetention(RetentionPolicy retention) {
+        for (DroneSeries droneSeries : series) {
+            droneSeries.setRetention(retention);
+        }
+    }
+
+    public void setRetention(DroneId droneId, RetentionPolicy retention) {
+        getSeries(droneId).setRetention(retention);
+    }
+
+    public long getEvictedReadings() {
+        long total = 0;
+        for (DroneSeries droneSeries : series) {
+            total += droneSeries.getEvictedReadings();
+        }
+        return total;
+    }
+
+    public long getEvictedBytes() {
+        long total = 0;
+        for (DroneSeries droneSeries : series) {
+            total += droneSeries.getEvictedChunks() * SeriesChunk.BYTES;
+        }
+        return total;
+    }
+
+    public DroneSeries getSeries(DroneId droneId) {
+        return series[droneId.getOrdinal()];
+    }
+
+    public void forEach(DroneId droneId, ReadingConsumer consumer) {
+        getSeries(droneId).forEach(consumer);
+    }
+
+    // Ex.: temperatura média de uma região na última hora, em O(buckets) em vez de O(leituras)
+    public Aggregate aggregate(DroneId droneId, Metric metric, long fromMillis, long toMillis) {
+        return getSeries(droneId).aggregate(metric, fromMillis, toMillis);
+    }
+
+    public Aggregate aggregateLast(DroneId droneId, Metric metric, Duration window) {
+        long now = System.currentTimeMillis();
+        return aggregate(droneId, metric, now - window.toMillis(), now + 1);
+    }
+
+    // Agregado da métrica somando todas as regiões
+    public Aggregate aggregate(Metric metric, long fromMillis, long toMillis) {
+        Aggregate total = Aggregate.EMPTY;
+        for (DroneSeries droneSeries : series) {
+            total = total.merge(droneSeries.aggregate(metric, fromMillis, toMillis));
+        }
+        return total;
+    }
+
+    public long size(DroneId droneId) {
+        return getSeries(droneId).size();
+    }
+
+    // Fotografia de todas as séries no mesmo instante lógico (uma série por vez, sem bloquear escritores)
+    public List<SeriesSnapshot> snapshot() {
+        List<SeriesSnapshot> snapshots = new ArrayList<>(series.length);
+        for (DroneSeries droneSeries : series) {
+            snapshots.add(droneSeries.snapshot());
+        }
+        return snapshots;
+    }
+
+    public Stream<Reading> stream() {
+        return snapshot().stream().flatMap(SeriesSnapshot::stream);
+    }
+
+    public long exportCsv(WritableByteChannel channel) throws IOException {
+        return new DataExporter().exportCsv(snapshot(), channel);
+    }
+
+    public long exportBinary(WritableByteChannel channel) throws IOException {
+        return new DataExporter().exportBinary(snapshot(), channel);
+    }
+
+    // Cópia das leituras no formato padrão; alterações posteriores não aparecem na lista
     public List<String> getData(String droneId) {
-        return database.getOrDefault(droneId, List.of());
+        DroneId id;
+        try {
+            id = DroneId.fromValue(droneId);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+        List<String> data = new ArrayList<>();
+        forEach(id, (_, temperatura, umidade, pressao, radiacao) ->
+                data.add(new ClimateData(temperatura, umidade, pressao, radiacao).toString()));
+        return data;
     }
 
     public Map<String, List<String>> getAllData() {
-        return Collections.unmodifiableMap(database);
+        Map<String, List<String>> all = new LinkedHashMap<>();
+        for (DroneSeries droneSeries : series) {
+            if (droneSeries.size() > 0) {
+                all.put(droneSeries.getDroneId().getValue(), getData(droneSeries.getDroneId().getValue()));
+            }
+        }
+        return Collections.unmodifiableMap(all);
     }
 
     public void printAllData() {
         System.out.println("Dados armazenados no banco de dados:");
-        database.forEach((drone, dataList) -> {
-            System.out.println("Drone: " + drone);
-            dataList.forEach(System.out::println);
-        });
+        for (SeriesSnapshot snapshot : snapshot()) {
+            if (snapshot.getSize() == 0) {
+                continue;
+            }
+            System.out.println("Drone: " + snapshot.getDroneId().getValue());
+            snapshot.forEach((_, temperatura, umidade, pressao, radiacao) ->
+                    System.out.println(new ClimateData(temperatura, umidade, pressao, radiacao)));
+        }
+    }
+
+    @Override
+    public void close() {
+        if (wal != null) {
+            wal.close();
+        }
     }
 }
@@ -0,0 +1,106 @@
+package com.climate.datas.database;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+
+/*
+ * Exporta fotografias do DataBase para um WritableByteChannel em memória
+ * constante: as linhas são montadas em um StringBuilder e um ByteBuffer
+ * reaproveitados, que são descarregados no canal sempre que enchem.
+ *
+ * CSV: drone,timestamp,temperatura,umidade,pressao,radiacao
+ * Binário: cabeçalho "CDEX" + versão (1 byte), depois registros de 41 bytes
+ *   [ordinal do DroneId:1][timestamp:8][temperatura:8][umidade:8][pressao:8][radiacao:8]
+ */
+public class DataExporter {
+    public static final byte[] BINARY_MAGIC = {'C', 'D', 'E', 'X'};
+    public static final byte BINARY_VERSION = 1;
+    public static final int BINARY_RECORD_SIZE = 1 + 8 + 4 * 8;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final StringBuilder line = new StringBuilder(128);
+
+    public long exportCsv(List<SeriesSnapshot> snapshots, WritableByteChannel channel) throws IOException {
+        buffer.clear();
+        writeAscii("drone,timestamp,temperatura,umidade,pressao,radiacao\n", channel);
+
+        long rows = 0;
+        for (SeriesSnapshot snapshot : snapshots) {
+            String drone = snapshot.getDroneId().getValue();
+            IOException[] failure = new IOException[1];
+            snapshot.forEach((timestamp, temperatura, umidade, pressao, radiacao) -> {
+                if (failure[0] != null) {
+                    return;
+                }
+                line.setLength(0);
+                line.append(drone).append(',').append(timestamp)
+                        .append(',').append(temperatura).append(',').append(umidade)
+                        .append(',').append(pressao).append(',').append(radiacao).append('\n');
+                try {
+                    writeAscii(line, channel);
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            rows += snapshot.getSize();
+        }
+        drain(channel);
+        return rows;
+    }
+
+    public long exportBinary(List<SeriesSnapshot> snapshots, WritableByteChannel channel) throws IOException {
+        buffer.clear();
+        buffer.put(BINARY_MAGIC).put(BINARY_VERSION);
+
+        long rows = 0;
+        for (SeriesSnapshot snapshot : snapshots) {
+            byte ordinal = (byte) snapshot.getDroneId().getOrdinal();
+            IOException[] failure = new IOException[1];
+            snapshot.forEach((timestamp, temperatura, umidade, pressao, radiacao) -> {
+                if (failure[0] != null) {
+                    return;
+                }
+                try {
+                    if (buffer.remaining() < BINARY_RECORD_SIZE) {
+                        drain(channel);
+                    }
+                } catch (IOException e) {
+                    failure[0] = e;
+                    return;
+                }
+                buffer.put(ordinal).putLong(timestamp)
+                        .putDouble(temperatura).putDouble(umidade).putDouble(pressao).putDouble(radiacao);
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            rows += snapshot.getSize();
+        }
+        drain(channel);
+        return rows;
+    }
+
+    // O CSV só contém caracteres ASCII (nomes das regiões, números e separadores)
+    private void writeAscii(CharSequence text, WritableByteChannel channel) throws IOException {
+        if (buffer.remaining() < text.length()) {
+            drain(channel);
+        }
+        for (int i = 0; i < text.length(); i++) {
+            buffer.put((byte) text.charAt(i));
+        }
+    }
+
+    private void drain(WritableByteChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
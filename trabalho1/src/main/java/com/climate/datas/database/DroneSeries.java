@@ -0,0 +1,112 @@
+package com.climate.datas.database;
+
+import java.util.ArrayDeque;
+
+import com.climate.datas.utils.drone.DroneId;
+import lombok.Getter;
+
+/*
+ * Série temporal de um drone, guardada em blocos colunares (SeriesChunk).
+ * Cada drone tem a sua própria série, então escritas de drones diferentes
+ * não disputam o mesmo lock. A RetentionPolicy descarta blocos inteiros do
+ * início da série, nunca o bloco que ainda recebe leituras.
+ */
+public class DroneSeries {
+    @Getter
+    private final DroneId droneId;
+    private final ArrayDeque<SeriesChunk> chunks = new ArrayDeque<>();
+    private SeriesChunk current;                // Bloco que recebe as próximas leituras
+    private long size;                          // Total de leituras armazenadas
+    private final Rollup rollup = new Rollup(); // Agregados por segundo/minuto/hora
+    private RetentionPolicy retention = RetentionPolicy.UNLIMITED;
+    private long evictedReadings;               // Leituras descartadas pela retenção
+    private long evictedChunks;                 // Blocos descartados pela retenção
+
+    DroneSeries(DroneId droneId) {
+        this.droneId = droneId;
+    }
+
+    public synchronized void append(long timestamp, double temperatura, double umidade, double pressao, double radiacao) {
+        if (current == null || current.isFull()) {
+            current = new SeriesChunk();
+            chunks.addLast(current);
+        }
+        current.append(timestamp, temperatura, umidade, pressao, radiacao);
+        rollup.update(timestamp, temperatura, umidade, pressao, radiacao);
+        size++;
+
+        if (!retention.isUnlimited()) {
+            evict(timestamp);
+        }
+    }
+
+    public synchronized void setRetention(RetentionPolicy retention) {
+        this.retention = retention == null ? RetentionPolicy.UNLIMITED : retention;
+        if (current != null && !this.retention.isUnlimited()) {
+            evict(current.maxTimestamp);
+        }
+    }
+
+    public synchronized RetentionPolicy getRetention() {
+        return retention;
+    }
+
+    public synchronized long getEvictedReadings() {
+        return evictedReadings;
+    }
+
+    public synchronized long getEvictedChunks() {
+        return evictedChunks;
+    }
+
+    // Descartes da recuperação do WAL não são da execução atual: os contadores recomeçam
+    synchronized void resetEvictionCounters() {
+        evictedReadings = 0;
+        evictedChunks = 0;
+    }
+
+    // Cada verificação é O(1); só há trabalho quando um bloco inteiro pode ser descartado
+    private void evict(long now) {
+        SeriesChunk oldest;
+        while ((oldest = chunks.peekFirst()) != null && oldest != current && exceeds(oldest, now)) {
+            chunks.pollFirst();
+            size -= oldest.size;
+            evictedReadings += oldest.size;
+            evictedChunks++;
+        }
+    }
+
+    private boolean exceeds(SeriesChunk oldest, long now) {
+        return (retention.maxReadings() > 0 && size > retention.maxReadings())
+                || (retention.maxBytes() > 0 && (long) chunks.size() * SeriesChunk.BYTES > retention.maxBytes())
+                || (retention.maxAgeMillis() > 0 && oldest.maxTimestamp < now - retention.maxAgeMillis());
+    }
+
+    // Agregado da métrica em [fromMillis, toMillis), calculado a partir dos rollups
+    public synchronized Aggregate aggregate(Metric metric, long fromMillis, long toMillis) {
+        return rollup.aggregate(metric, fromMillis, toMillis);
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    public void forEach(ReadingConsumer consumer) {
+        snapshot().forEach(consumer);
+    }
+
+    // O lock fica preso apenas para copiar as referências dos blocos
+    public synchronized SeriesSnapshot snapshot() {
+        SeriesChunk[] copy = chunks.toArray(new SeriesChunk[0]);
+        int[] sizes = new int[copy.length];
+        for (int i = 0; i < copy.length; i++) {
+            sizes[i] = copy[i].size;
+        }
+        return new SeriesSnapshot(droneId, copy, sizes);
+    }
+
+    // Memória ocupada pelos blocos alocados
+    public synchronized long sizeInBytes() {
+        return (long) chunks.size() * SeriesChunk.BYTES;
+    }
+}
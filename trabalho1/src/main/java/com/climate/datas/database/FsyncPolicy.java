@@ -0,0 +1,30 @@
+package com.climate.datas.database;
+
+/*
+ * Quando o WriteAheadLog força os registros para o disco: a cada everyRecords
+ * registros e/ou a cada everyMillis milissegundos (0 desativa o critério).
+ * Pode ser definida com a propriedade -Ddatabase.wal.fsync=registros,milissegundos (ex.: 1000,100).
+ */
+public record FsyncPolicy(int everyRecords, long everyMillis) {
+    public static final FsyncPolicy DEFAULT = new FsyncPolicy(1000, 100);
+
+    public FsyncPolicy {
+        if (everyRecords < 0 || everyMillis < 0) {
+            throw new IllegalArgumentException("Os critérios de fsync não podem ser negativos.");
+        }
+    }
+
+    public static FsyncPolicy fromProperty() {
+        String value = System.getProperty("database.wal.fsync");
+        if (value == null || value.isBlank()) {
+            return DEFAULT;
+        }
+        String[] parts = value.split(",");
+        try {
+            return new FsyncPolicy(Integer.parseInt(parts[0].trim()),
+                    parts.length > 1 ? Long.parseLong(parts[1].trim()) : 0);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido para database.wal.fsync: " + value, e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.climate.datas.database;
+
+import lombok.Getter;
+
+// Métricas armazenadas pelo DataBase, na ordem do formato padrão [temperatura//umidade//pressao//radiacao]
+@Getter
+public enum Metric {
+    TEMPERATURA("temperatura", 0), UMIDADE("umidade", 1), PRESSAO("pressao", 2), RADIACAO("radiacao", 3);
+
+    private final String value;
+    private final int column;       // Índice da coluna no SeriesChunk
+
+    Metric(String value, int column) {
+        this.value = value;
+        this.column = column;
+    }
+}
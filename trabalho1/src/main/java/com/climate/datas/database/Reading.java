@@ -0,0 +1,12 @@
+package com.climate.datas.database;
+
+import com.climate.datas.utils.ClimateData;
+import com.climate.datas.utils.drone.DroneId;
+
+// Uma leitura armazenada, usada pela API de Stream do DataBase
+public record Reading(DroneId droneId, long timestamp, double temperatura, double umidade, double pressao, double radiacao) {
+
+    public ClimateData toClimateData() {
+        return new ClimateData(temperatura, umidade, pressao, radiacao);
+    }
+}
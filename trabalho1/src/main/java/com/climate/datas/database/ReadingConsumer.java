@@ -0,0 +1,7 @@
+package com.climate.datas.database;
+
+// Recebe uma leitura armazenada sem boxing dos valores
+@FunctionalInterface
+public interface ReadingConsumer {
+    void accept(long timestamp, double temperatura, double umidade, double pressao, double radiacao);
+}
@@ -0,0 +1,37 @@
+package com.climate.datas.database;
+
+/*
+ * Limites de retenção de uma série: idade máxima, quantidade de leituras e
+ * memória ocupada (0 = sem limite). A remoção é feita por blocos inteiros
+ * (SeriesChunk), então a série pode passar do limite em até um bloco.
+ * Pode ser definida com -Ddatabase.retention=idadeMs,leituras,bytes (ex.: 3600000,0,67108864).
+ */
+public record RetentionPolicy(long maxAgeMillis, long maxReadings, long maxBytes) {
+    public static final RetentionPolicy UNLIMITED = new RetentionPolicy(0, 0, 0);
+
+    public RetentionPolicy {
+        if (maxAgeMillis < 0 || maxReadings < 0 || maxBytes < 0) {
+            throw new IllegalArgumentException("Os limites de retenção não podem ser negativos.");
+        }
+    }
+
+    public boolean isUnlimited() {
+        return maxAgeMillis == 0 && maxReadings == 0 && maxBytes == 0;
+    }
+
+    public static RetentionPolicy fromProperty() {
+        String value = System.getProperty("database.retention");
+        if (value == null || value.isBlank()) {
+            return UNLIMITED;
+        }
+        String[] parts = value.split(",");
+        try {
+            return new RetentionPolicy(
+                    Long.parseLong(parts[0].trim()),
+                    parts.length > 1 ? Long.parseLong(parts[1].trim()) : 0,
+                    parts.length > 2 ? Long.parseLong(parts[2].trim()) : 0);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido para database.retention: " + value, e);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.climate.datas.database;
+
+import java.util.Arrays;
+
+/*
+ * Agregados pré-calculados (count/min/max/sum por métrica) de uma série, em
+ * cada RollupTier. Cada nível é um anel de buckets indexado por
+ * (timestamp / resolução) % buckets; um bucket cujo início não bate com o
+ * esperado pertence a outra volta do anel e é tratado como vazio.
+ *
+ * Não é thread-safe: o DroneSeries dono do Rollup faz a sincronização.
+ */
+final class Rollup {
+    private static final RollupTier[] TIERS = RollupTier.values();
+    private static final int METRICS = Metric.values().length;
+
+    private final long[][] starts = new long[TIERS.length][];       // Início de cada bucket
+    private final long[][] counts = new long[TIERS.length][];
+    private final double[][][] mins = new double[TIERS.length][METRICS][];
+    private final double[][][] maxs = new double[TIERS.length][METRICS][];
+    private final double[][][] sums = new double[TIERS.length][METRICS][];
+
+    Rollup() {
+        for (RollupTier tier : TIERS) {
+            int t = tier.ordinal();
+            starts[t] = new long[tier.getBuckets()];
+            Arrays.fill(starts[t], Long.MIN_VALUE);
+            counts[t] = new long[tier.getBuckets()];
+            for (int m = 0; m < METRICS; m++) {
+                mins[t][m] = new double[tier.getBuckets()];
+                maxs[t][m] = new double[tier.getBuckets()];
+                sums[t][m] = new double[tier.getBuckets()];
+            }
+        }
+    }
+
+    void update(long timestamp, double temperatura, double umidade, double pressao, double radiacao) {
+        for (RollupTier tier : TIERS) {
+            int t = tier.ordinal();
+            long start = Math.floorDiv(timestamp, tier.getResolutionMillis()) * tier.getResolutionMillis();
+            int index = index(tier, start);
+
+            if (starts[t][index] != start) {
+                // Leitura mais antiga que a volta atual do anel: já saiu da retenção deste nível
+                if (starts[t][index] > start) {
+                    continue;
+                }
+                starts[t][index] = start;
+                counts[t][index] = 0;
+            }
+
+            long count = counts[t][index]++;
+            add(t, Metric.TEMPERATURA.getColumn(), index, count, temperatura);
+            add(t, Metric.UMIDADE.getColumn(), index, count, umidade);
+            add(t, Metric.PRESSAO.getColumn(), index, count, pressao);
+            add(t, Metric.RADIACAO.getColumn(), index, count, radiacao);
+        }
+    }
+
+    private void add(int t, int m, int index, long previousCount, double value) {
+        if (previousCount == 0) {
+            mins[t][m][index] = value;
+            maxs[t][m][index] = value;
+            sums[t][m][index] = value;
+        } else {
+            mins[t][m][index] = Math.min(mins[t][m][index], value);
+            maxs[t][m][index] = Math.max(maxs[t][m][index], value);
+            sums[t][m][index] += value;
+        }
+    }
+
+    /*
+     * Agrega [from, to) usando os buckets do nível mais grosso que cabem inteiros
+     * na janela e completando as bordas com os níveis mais finos. A menor
+     * resolução é 1 segundo: as bordas são arredondadas para o segundo. Bordas
+     * mais antigas que a retenção do nível fino correspondente ficam de fora.
+     */
+    Aggregate aggregate(Metric metric, long from, long to) {
+        return aggregate(metric.getColumn(), from, to, TIERS.length - 1);
+    }
+
+    private Aggregate aggregate(int m, long from, long to, int t) {
+        if (from >= to) {
+            return Aggregate.EMPTY;
+        }
+        RollupTier tier = TIERS[t];
+        long resolution = tier.getResolutionMillis();
+
+        if (t == 0) {
+            long first = Math.floorDiv(from, resolution) * resolution;
+            return sumBuckets(t, m, first, to);
+        }
+
+        long alignedFrom = Math.floorDiv(from + resolution - 1, resolution) * resolution;
+        long alignedTo = Math.floorDiv(to, resolution) * resolution;
+        if (alignedFrom >= alignedTo) {
+            return aggregate(m, from, to, t - 1);
+        }
+        return aggregate(m, from, alignedFrom, t - 1)
+                .merge(sumBuckets(t, m, alignedFrom, alignedTo))
+                .merge(aggregate(m, alignedTo, to, t - 1));
+    }
+
+    // Soma os buckets com início em [from, to), limitados à retenção do nível
+    private Aggregate sumBuckets(int t, int m, long from, long to) {
+        RollupTier tier = TIERS[t];
+        long resolution = tier.getResolutionMillis();
+        long first = Math.max(from, to - tier.retentionMillis());
+
+        long count = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double sum = 0;
+        for (long start = Math.floorDiv(first + resolution - 1, resolution) * resolution; start < to; start += resolution) {
+            int index = index(tier, start);
+            if (starts[t][index] != start || counts[t][index] == 0) {
+                continue;
+            }
+            count += counts[t][index];
+            min = Math.min(min, mins[t][m][index]);
+            max = Math.max(max, maxs[t][m][index]);
+            sum += sums[t][m][index];
+        }
+        return count == 0 ? Aggregate.EMPTY : new Aggregate(count, min, max, sum);
+    }
+
+    private static int index(RollupTier tier, long start) {
+        return (int) Math.floorMod(start / tier.getResolutionMillis(), (long) tier.getBuckets());
+    }
+}
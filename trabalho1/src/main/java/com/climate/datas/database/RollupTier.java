@@ -0,0 +1,23 @@
+package com.climate.datas.database;
+
+import lombok.Getter;
+
+// Resoluções dos agregados mantidos pelo DataBase e quanto tempo cada uma cobre
+@Getter
+public enum RollupTier {
+    SECOND(1_000L, 3_600),          // 1 hora em buckets de 1 segundo
+    MINUTE(60_000L, 1_440),         // 1 dia em buckets de 1 minuto
+    HOUR(3_600_000L, 720);          // 30 dias em buckets de 1 hora
+
+    private final long resolutionMillis;
+    private final int buckets;
+
+    RollupTier(long resolutionMillis, int buckets) {
+        this.resolutionMillis = resolutionMillis;
+        this.buckets = buckets;
+    }
+
+    public long retentionMillis() {
+        return resolutionMillis * buckets;
+    }
+}
@@ -0,0 +1,43 @@
+package com.climate.datas.database;
+
+/*
+ * Bloco de tamanho fixo de uma série: uma coluna long[] de timestamps e uma
+ * coluna double[] por métrica. As leituras são acrescentadas em ordem e
+ * nunca alteradas depois de escritas.
+ */
+final class SeriesChunk {
+    static final int CAPACITY = 1024;           // Leituras por bloco
+    static final int BYTES = CAPACITY * (Long.BYTES + Metric.values().length * Double.BYTES);
+
+    final long[] timestamps = new long[CAPACITY];
+    final double[][] columns = new double[Metric.values().length][CAPACITY];
+    int size;                                   // Leituras escritas (protegido pela série)
+    long maxTimestamp = Long.MIN_VALUE;         // Leitura mais recente do bloco, usada na retenção por idade
+
+    boolean isFull() {
+        return size == CAPACITY;
+    }
+
+    void append(long timestamp, double temperatura, double umidade, double pressao, double radiacao) {
+        int i = size;
+        timestamps[i] = timestamp;
+        columns[Metric.TEMPERATURA.getColumn()][i] = temperatura;
+        columns[Metric.UMIDADE.getColumn()][i] = umidade;
+        columns[Metric.PRESSAO.getColumn()][i] = pressao;
+        columns[Metric.RADIACAO.getColumn()][i] = radiacao;
+        size = i + 1;
+        if (timestamp > maxTimestamp) {
+            maxTimestamp = timestamp;
+        }
+    }
+
+    void forEach(int from, int to, ReadingConsumer consumer) {
+        double[] temperatura = columns[Metric.TEMPERATURA.getColumn()];
+        double[] umidade = columns[Metric.UMIDADE.getColumn()];
+        double[] pressao = columns[Metric.PRESSAO.getColumn()];
+        double[] radiacao = columns[Metric.RADIACAO.getColumn()];
+        for (int i = from; i < to; i++) {
+            consumer.accept(timestamps[i], temperatura[i], umidade[i], pressao[i], radiacao[i]);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.climate.datas.database;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.climate.datas.utils.drone.DroneId;
+import lombok.Getter;
+
+/*
+ * Fotografia de uma série em um instante. Guarda apenas as referências dos
+ * blocos e quantas leituras cada um tinha; como os blocos só crescem e as
+ * posições já escritas nunca mudam, a leitura é feita sem lock e sem
+ * atrapalhar quem continua escrevendo na série.
+ */
+public class SeriesSnapshot {
+    @Getter
+    private final DroneId droneId;
+    private final SeriesChunk[] chunks;
+    private final int[] sizes;
+    @Getter
+    private final long size;
+
+    SeriesSnapshot(DroneId droneId, SeriesChunk[] chunks, int[] sizes) {
+        this.droneId = droneId;
+        this.chunks = chunks;
+        this.sizes = sizes;
+        long total = 0;
+        for (int chunkSize : sizes) {
+            total += chunkSize;
+        }
+        this.size = total;
+    }
+
+    public void forEach(ReadingConsumer consumer) {
+        for (int c = 0; c < chunks.length; c++) {
+            chunks[c].forEach(0, sizes[c], consumer);
+        }
+    }
+
+    public Iterator<Reading> iterator() {
+        return new Iterator<>() {
+            private int chunk = 0;
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                while (chunk < chunks.length && index >= sizes[chunk]) {
+                    chunk++;
+                    index = 0;
+                }
+                return chunk < chunks.length;
+            }
+
+            @Override
+            public Reading next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                SeriesChunk current = chunks[chunk];
+                int i = index++;
+                return new Reading(droneId, current.timestamps[i],
+                        current.columns[Metric.TEMPERATURA.getColumn()][i],
+                        current.columns[Metric.UMIDADE.getColumn()][i],
+                        current.columns[Metric.PRESSAO.getColumn()][i],
+                        current.columns[Metric.RADIACAO.getColumn()][i]);
+            }
+        };
+    }
+
+    public Stream<Reading> stream() {
+        return StreamSupport.stream(Spliterators.spliterator(iterator(), size,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+    }
+}
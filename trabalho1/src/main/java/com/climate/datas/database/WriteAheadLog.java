@@ -0,0 +1,345 @@
+package com.climate.datas.database;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import com.climate.datas.utils.Loggable;
+import com.climate.datas.utils.drone.DroneId;
+import lombok.Getter;
+
+/*
+ * Log de escrita antecipada (append-only) das leituras do DataBase.
+ *
+ * Os registros são gravados em segmentos de tamanho fixo mapeados em memória
+ * (MappedByteBuffer), e o fsync segue a FsyncPolicy. Layout de cada registro (46 bytes):
+ *   [marcador:1][ordinal do DroneId:1][timestamp:8][temperatura:8][umidade:8][pressao:8][radiacao:8][crc32c:4]
+ *
+ * Os segmentos são pré-preenchidos com zeros pelo sistema de arquivos, então a
+ * recuperação lê cada segmento até o primeiro marcador inválido ou CRC incorreto.
+ * Na abertura a escrita continua no último segmento, logo após o último registro
+ * válido; só começa um segmento novo se o último estiver cheio ou terminar em lixo.
+ *
+ * Segmentos antigos são apagados ao abrir um segmento novo: os que só têm leituras
+ * mais velhas que maxAgeMillis (a idade da RetentionPolicy) e os que passam de
+ * maxSegments (0 = sem limite). O segmento atual nunca
+ * é apagado.
+ */
+public class WriteAheadLog implements AutoCloseable, Loggable {
+    public static final int RECORD_SIZE = 1 + 1 + 8 + 4 * 8 + 4;
+    public static final long DEFAULT_SEGMENT_SIZE = 64L << 20;      // 64 MiB por segmento
+    private static final byte MARKER = (byte) 0xA7;
+    private static final String PREFIX = "wal-";
+    private static final String SUFFIX = ".log";
+
+    @Getter
+    private final Path directory;
+    private final long segmentSize;
+    @Getter
+    private final FsyncPolicy fsyncPolicy;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ByteBuffer scratch = ByteBuffer.allocate(RECORD_SIZE);   // Registro montado antes da cópia
+    private final CRC32C crc = new CRC32C();
+    private final ScheduledExecutorService syncer;
+
+    private MappedByteBuffer segment;           // Segmento atual
+    private long segmentIndex;                  // Número do segmento atual
+    private int syncedPosition;                 // Até onde o segmento atual já foi forçado para o disco
+    private int unsyncedRecords;                // Registros gravados desde o último fsync
+    private final Map<Long, Long> newestBySegment = new TreeMap<>(); // Maior timestamp de cada segmento conhecido
+    private long newestTimestamp = Long.MIN_VALUE;  // Maior timestamp gravado ou relido
+    private long maxAgeMillis;                  // Idade a partir da qual segmentos são apagados (0 = nunca)
+    private int maxSegments;                    // Segmentos mantidos (0 = sem limite)
+    @Getter
+    private long appended;                      // Registros gravados desde a abertura
+    private volatile boolean closed = false;
+
+    // Recebe os registros durante a recuperação
+    @FunctionalInterface
+    public interface RecordSink {
+        void accept(DroneId droneId, long timestamp, double temperatura, double umidade, double pressao, double radiacao);
+    }
+
+    private WriteAheadLog(Path directory, long segmentSize, FsyncPolicy fsyncPolicy) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsyncPolicy = fsyncPolicy;
+        if (fsyncPolicy.everyMillis() > 0) {
+            this.syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "wal-fsync");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.syncer = null;
+        }
+    }
+
+    public static WriteAheadLog open(Path directory, FsyncPolicy fsyncPolicy) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_SIZE, fsyncPolicy);
+    }
+
+    public static WriteAheadLog open(Path directory, long segmentSize, FsyncPolicy fsyncPolicy) throws IOException {
+        if (segmentSize < RECORD_SIZE || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Tamanho de segmento inválido: " + segmentSize);
+        }
+        Files.createDirectories(directory);
+        WriteAheadLog wal = new WriteAheadLog(directory, segmentSize, fsyncPolicy);
+        List<Path> segments = wal.segments();
+        wal.segmentIndex = segments.isEmpty() ? 0 : indexOf(segments.getLast());
+        if (!segments.isEmpty()) {
+            wal.resume(segments.getLast());
+        }
+        if (wal.syncer != null) {
+            wal.syncer.scheduleAtFixedRate(wal::syncQuietly, fsyncPolicy.everyMillis(), fsyncPolicy.everyMillis(), TimeUnit.MILLISECONDS);
+        }
+        return wal;
+    }
+
+    // Relê todos os segmentos em ordem; deve ser chamado antes do primeiro append
+    public long replay(RecordSink sink) throws IOException {
+        long records = 0;
+        for (Path path : segments()) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                records += scan(buffer, indexOf(path), sink) / RECORD_SIZE;
+            }
+        }
+        info("WAL recuperou " + records + " registros de " + directory);
+        return records;
+    }
+
+    // Lê os registros válidos do início do buffer (sink pode ser null) e retorna onde eles terminam
+    private int scan(MappedByteBuffer buffer, long index, RecordSink sink) {
+        CRC32C check = new CRC32C();
+        long newest = Long.MIN_VALUE;
+        while (buffer.remaining() >= RECORD_SIZE && buffer.get(buffer.position()) == MARKER) {
+            int start = buffer.position();
+            check.reset();
+            check.update(buffer.slice(start, RECORD_SIZE - 4));
+            if ((int) check.getValue() != buffer.getInt(start + RECORD_SIZE - 4)) {
+                warn("Registro corrompido no WAL segmento " + index + " na posição " + start + ". Ignorando o restante do segmento.");
+                break;
+            }
+            DroneId droneId = DroneId.fromOrdinal(buffer.get(start + 1));
+            long timestamp = buffer.getLong(start + 2);
+            if (sink != null) {
+                sink.accept(droneId, timestamp, buffer.getDouble(start + 10), buffer.getDouble(start + 18),
+                        buffer.getDouble(start + 26), buffer.getDouble(start + 34));
+            }
+            newest = Math.max(newest, timestamp);
+            buffer.position(start + RECORD_SIZE);
+        }
+        if (newest != Long.MIN_VALUE) {
+            lock.lock();
+            try {
+                newestBySegment.merge(index, newest, Math::max);
+                newestTimestamp = Math.max(newestTimestamp, newest);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return buffer.position();
+    }
+
+    // Continua a escrita no último segmento, se ele terminar limpo (zeros) e ainda tiver espaço
+    private void resume(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            int end = scan(buffer, segmentIndex, null);
+            if (buffer.remaining() < RECORD_SIZE || buffer.get(end) != 0) {
+                return;                         // Cheio ou com lixo depois do último registro: o próximo append abre outro
+            }
+            segment = buffer;
+            syncedPosition = end;
+        }
+    }
+
+    // Apaga os segmentos (exceto o atual) cujo registro mais novo é anterior a timestamp; retorna quantos
+    public int truncateBefore(long timestamp) {
+        lock.lock();
+        try {
+            int removed = 0;
+            Iterator<Map.Entry<Long, Long>> entries = newestBySegment.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<Long, Long> entry = entries.next();
+                if (entry.getKey() != segmentIndex && entry.getValue() < timestamp) {
+                    if (delete(entry.getKey())) {
+                        entries.remove();
+                        removed++;
+                    }
+                }
+            }
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void setMaxAgeMillis(long maxAgeMillis) {
+        if (maxAgeMillis < 0) {
+            throw new IllegalArgumentException("A idade máxima não pode ser negativa.");
+        }
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    public void setMaxSegments(int maxSegments) {
+        if (maxSegments < 0) {
+            throw new IllegalArgumentException("O número máximo de segmentos não pode ser negativo.");
+        }
+        this.maxSegments = maxSegments;
+    }
+
+    public void append(DroneId droneId, long timestamp, double temperatura, double umidade, double pressao, double radiacao) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("WAL fechado.");
+            }
+            if (segment == null || segment.remaining() < RECORD_SIZE) {
+                roll();
+            }
+
+            if (timestamp > newestTimestamp) {
+                newestTimestamp = timestamp;
+            }
+            newestBySegment.merge(segmentIndex, timestamp, Math::max);
+
+            scratch.clear();
+            scratch.put(MARKER)
+                    .put((byte) droneId.getOrdinal())
+                    .putLong(timestamp)
+                    .putDouble(temperatura)
+                    .putDouble(umidade)
+                    .putDouble(pressao)
+                    .putDouble(radiacao);
+            crc.reset();
+            crc.update(scratch.array(), 0, RECORD_SIZE - 4);
+            scratch.putInt((int) crc.getValue());
+            segment.put(scratch.flip());
+
+            appended++;
+            if (fsyncPolicy.everyRecords() > 0 && ++unsyncedRecords >= fsyncPolicy.everyRecords()) {
+                sync();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao gravar no WAL", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Força para o disco apenas o trecho do segmento escrito desde o último fsync
+    public void sync() {
+        lock.lock();
+        try {
+            if (segment != null && segment.position() > syncedPosition) {
+                segment.force(syncedPosition, segment.position() - syncedPosition);
+                syncedPosition = segment.position();
+            }
+            unsyncedRecords = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (Exception e) {
+            erro("Erro no fsync periódico do WAL: " + e.getMessage());
+        }
+    }
+
+    private void roll() throws IOException {
+        if (segment != null) {
+            sync();
+        }
+        segmentIndex++;
+        try (FileChannel channel = FileChannel.open(pathOf(segmentIndex), StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        syncedPosition = 0;
+        removeOldSegments();
+    }
+
+    // Chamado com o lock, a cada segmento novo
+    private void removeOldSegments() throws IOException {
+        if (maxAgeMillis > 0 && newestTimestamp != Long.MIN_VALUE) {
+            int removed = truncateBefore(newestTimestamp - maxAgeMillis);
+            if (removed > 0) {
+                info("WAL apagou " + removed + " segmento(s) mais antigos que " + maxAgeMillis + " ms");
+            }
+        }
+        if (maxSegments > 0) {
+            List<Path> segments = segments();
+            for (int i = 0; i < segments.size() - maxSegments; i++) {
+                long index = indexOf(segments.get(i));
+                if (index != segmentIndex && delete(index)) {
+                    newestBySegment.remove(index);
+                }
+            }
+        }
+    }
+
+    private boolean delete(long index) {
+        try {
+            return Files.deleteIfExists(pathOf(index));
+        } catch (IOException e) {
+            erro("Erro ao apagar o segmento " + index + " do WAL: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private Path pathOf(long index) {
+        return directory.resolve(String.format("%s%010d%s", PREFIX, index, SUFFIX));
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long indexOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    @Override
+    public void close() {
+        if (syncer != null) {
+            syncer.shutdownNow();
+        }
+        lock.lock();
+        try {
+            if (!closed) {
+                sync();
+                closed = true;
+                segment = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.climate.datas.datacenter;
+
+/*
+ * Parâmetros do circuit breaker de cada servidor e da verificação de saúde.
+ *
+ * failureThreshold: falhas seguidas que abrem o circuito.
+ * baseBackoffMillis/maxBackoffMillis: espera antes da próxima tentativa de
+ *   reconexão, dobrando a cada falha até o máximo.
+ * checkIntervalMillis: intervalo entre as verificações em segundo plano.
+ *
+ * Pode ser configurado com -Ddatacenter.breaker=falhas,baseMs,maxMs,intervaloMs (ex.: 3,200,10000,250).
+ */
+public record BreakerPolicy(int failureThreshold, long baseBackoffMillis, long maxBackoffMillis, long checkIntervalMillis) {
+    public static final BreakerPolicy DEFAULT = new BreakerPolicy(3, 200, 10_000, 250);
+
+    public BreakerPolicy {
+        if (failureThreshold <= 0 || baseBackoffMillis <= 0 || checkIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Parâmetros do circuit breaker devem ser positivos.");
+        }
+        if (maxBackoffMillis < baseBackoffMillis) {
+            throw new IllegalArgumentException("A espera máxima não pode ser menor que a espera base.");
+        }
+    }
+
+    public static BreakerPolicy fromProperty() {
+        String value = System.getProperty("datacenter.breaker");
+        if (value == null || value.isBlank()) {
+            return DEFAULT;
+        }
+        String[] parts = value.split(",");
+        try {
+            return new BreakerPolicy(
+                    Integer.parseInt(parts[0].trim()),
+                    parts.length > 1 ? Long.parseLong(parts[1].trim()) : DEFAULT.baseBackoffMillis(),
+                    parts.length > 2 ? Long.parseLong(parts[2].trim()) : DEFAULT.maxBackoffMillis(),
+                    parts.length > 3 ? Long.parseLong(parts[3].trim()) : DEFAULT.checkIntervalMillis());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido para datacenter.breaker: " + value, e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.climate.datas.datacenter;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ * Circuit breaker de um servidor.
+ *
+ * CLOSED: o servidor recebe leituras; falhas seguidas acima do limite abrem o circuito.
+ * OPEN: nenhuma leitura é enviada; após o backoff a verificação de saúde passa para HALF_OPEN.
+ * HALF_OPEN: uma única tentativa de reconexão; sucesso fecha o circuito, falha
+ *   o reabre com o dobro da espera (até o máximo), com ±20% de variação
+ *   para que vários DataCenters não tentem todos ao mesmo tempo.
+ */
+public class CircuitBreaker {
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final BreakerPolicy policy;
+    private volatile State state = State.CLOSED;    // Lido sem lock a cada envio
+    private volatile int failures = 0;              // Falhas seguidas no estado CLOSED
+    private int attempts = 0;                       // Reaberturas seguidas, define o backoff
+    private long retryAtMillis = 0;                 // Quando a próxima tentativa é permitida
+    private long trips = 0;                         // Vezes em que o circuito abriu
+
+    public CircuitBreaker(BreakerPolicy policy) {
+        this.policy = policy;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isClosed() {
+        return state == State.CLOSED;
+    }
+
+    // Envio bem-sucedido: zera as falhas seguidas sem tomar o lock no caso comum
+    public void recordSend() {
+        if (failures != 0) {
+            synchronized (this) {
+                if (state == State.CLOSED) {
+                    failures = 0;
+                }
+            }
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        failures = 0;
+        attempts = 0;
+        state = State.CLOSED;
+    }
+
+    // Retorna true quando esta falha abriu o circuito
+    public synchronized boolean recordFailure() {
+        switch (state) {
+            case CLOSED -> {
+                if (++failures >= policy.failureThreshold()) {
+                    open();
+                    return true;
+                }
+                return false;
+            }
+            case HALF_OPEN -> {
+                attempts++;
+                open();
+                return false;
+            }
+            default -> {
+                return false;
+            }
+        }
+    }
+
+    // Abre o circuito imediatamente (ex.: todas as conexões caíram)
+    public synchronized boolean trip() {
+        if (state != State.CLOSED) {
+            return false;
+        }
+        open();
+        return true;
+    }
+
+    // Chamado pela verificação de saúde: passa para HALF_OPEN quando o backoff terminou
+    public synchronized boolean tryHalfOpen(long nowMillis) {
+        if (state == State.OPEN && nowMillis >= retryAtMillis) {
+            state = State.HALF_OPEN;
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized long getTrips() {
+        return trips;
+    }
+
+    private void open() {
+        if (state == State.CLOSED) {
+            trips++;
+        }
+        state = State.OPEN;
+        failures = 0;
+        long backoff = Math.min(policy.maxBackoffMillis(), policy.baseBackoffMillis() << Math.min(attempts, 30));
+        long jitter = (long) (backoff * 0.2 * (ThreadLocalRandom.current().nextDouble() * 2 - 1));
+        retryAtMillis = System.currentTimeMillis() + Math.max(0, backoff + jitter);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return state + "[aberturas=" + trips + ", tentativas=" + attempts + "]";
+    }
+}
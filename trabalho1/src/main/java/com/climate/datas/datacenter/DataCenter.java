@@ -1,24 +1,39 @@
 package com.climate.datas.datacenter;
 
-import java.io.IOException;
 import java.net.DatagramPacket;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.MulticastSocket;
 import java.net.NetworkInterface;
-import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.MembershipKey;
 import java.time.Duration;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.LongStream;
 
 import com.climate.datas.utils.Loggable;
 import com.climate.datas.utils.ServerInfo;
-import com.climate.datas.utils.common.Communicator;
+import com.climate.datas.utils.common.BatchPolicy;
+import com.climate.datas.utils.common.BufferPool;
+import com.climate.datas.utils.common.HopLatency;
+import com.climate.datas.utils.common.NetworkConfig;
+import com.climate.datas.utils.common.RoleMetrics;
 import com.climate.datas.utils.drone.DatagramDrone;
+import com.climate.datas.utils.drone.DroneBatch;
+import com.climate.datas.utils.drone.DroneId;
+import com.climate.datas.utils.drone.DroneNack;
+import com.climate.datas.utils.jfr.DroneReadingEvent;
+import com.climate.datas.utils.jfr.PacketReceivedEvent;
 
 import lombok.Getter;
 
@@ -27,65 +42,147 @@ public class DataCenter implements AutoCloseable, Loggable {
     private final int port;                         // Porta do load balancer
     private String hostServers;                     // Endereço dos servidores
     private InetSocketAddress grupo;                // Endereço do grupo multicast
+    private final NetworkInterface networkInterface; // Interface do multicast (null: a padrão do sistema)
     private MulticastSocket dataSocket;             // MulticastSocket
+    private DatagramChannel dataChannel;            // DatagramChannel (modo CHANNEL)
+    private MembershipKey membership;               // Inscrição do canal no grupo multicast
+    private final ReceiveMode receiveMode;          // Motor de recepção dos datagramas
+    private final BufferPool bufferPool;            // Buffers diretos reaproveitados (modo CHANNEL)
+    private final LongAdder receivedPackets = new LongAdder(); // Pacotes recebidos dos drones
+    private final LongAdder receivedReadings = new LongAdder(); // Leituras recebidas (um pacote pode trazer um lote)
+    private long startNanos;                        // Início da recepção, para cálculo de pacotes/s
+    private final BatchPolicy batchPolicy = BatchPolicy.fromProperty(); // Agrupamento dos envios aos servidores
     private final ExecutorService threadPool;       // Pool de threads para tratar as conexões
     private final List<ServerInfo> servers;         // Info dos servidores
-    private final List<Communicator> communicators; // Lista de comunicadores para enviar dados
-    Random random = new Random();
+    private final int poolSize = ServerConnectionPool.sizeFromProperty(); // Conexões TCP por servidor
+    private final BreakerPolicy breakerPolicy = BreakerPolicy.fromProperty(); // Circuit breaker e verificação de saúde
+    private List<ServerConnectionPool> allPools = List.of();      // Um pool por servidor configurado
+    private volatile Routes routes = Routes.EMPTY;  // Pools com circuito fechado; trocados inteiros a cada alteração
+    private HealthChecker healthChecker;            // Reconexões em segundo plano
+    private final LossDetector lossDetector = new LossDetector(Integer.getInteger("datacenter.loss.window", 1024)); // Lacunas por drone
+    private final boolean nackEnabled = Boolean.getBoolean("datacenter.nack"); // Pede retransmissão das lacunas aos drones
+    private final ServerSelector selector;          // Estratégia de escolha do servidor
+    private final RoleMetrics metrics = new RoleMetrics("DataCenter", "DataCenter"); // Latências publicadas no JMX
+    private final HopLatency receiveLatency = metrics.hop("receive"); // Coleta no drone -> chegada no DataCenter
+    private final HopLatency sendLatency = metrics.hop("send");       // Entrega da leitura à conexão do servidor
 
     @Getter
     private volatile boolean running = false;       // Flag indicadora de execução
 
     public DataCenter() throws Exception {
-        this.port = 49999;
-        this.host = "230.0.0.1";
-        this.hostServers = "10.10.71.58";
+        this(ReceiveMode.fromProperty());
+    }
+
+    public DataCenter(ReceiveMode receiveMode) throws Exception {
+        this(receiveMode, RoutingStrategy.fromProperty());
+    }
+
+    public DataCenter(ReceiveMode receiveMode, ServerSelector selector) throws Exception {
+        this(receiveMode, selector, NetworkConfig.fromProperties());
+    }
+
+    // Recebe os drones em network.dataCenter() e repassa as leituras aos servidores de network.servers()
+    public DataCenter(ReceiveMode receiveMode, ServerSelector selector, NetworkConfig network) throws Exception {
+        this.receiveMode = receiveMode;
+        this.selector = selector;
+        this.bufferPool = receiveMode == ReceiveMode.CHANNEL ? new BufferPool(256, DroneBatch.MAX_DATAGRAM) : null;
+        this.port = network.dataCenter().getPort();
+        this.host = network.dataCenter().getHost();
+        this.hostServers = network.host();
+        this.networkInterface = network.networkInterface();
         this.threadPool = Executors.newVirtualThreadPerTaskExecutor();
-        this.servers = List.of(new ServerInfo(hostServers, 50001), new ServerInfo(hostServers, 50002));
-        this.communicators = new ArrayList<>();
+        this.servers = network.servers();
         startCommunicationServers();
         startCommunicationDrones();
     }
 
     public void startCommunicationServers() throws Exception {
+        List<ServerConnectionPool> created = new ArrayList<>();
         servers.forEach(server -> {
-            try {
-                Communicator communicator = new Communicator(new Socket(server.getHost(), server.getPort()), "DataCenter");
-                communicators.add(communicator);
-            } catch (IOException e) {
-                erro("Erro ao conectar com o servidor " + server.getHost() + ":" + server.getPort() + ": " + e.getMessage());
+            ServerConnectionPool pool = new ServerConnectionPool(server, poolSize, batchPolicy, new CircuitBreaker(breakerPolicy));
+            if (!pool.isAvailable()) {
+                erro("Erro ao conectar com o servidor " + server.getHost() + ":" + server.getPort());
             }
+            // Servidores indisponíveis ficam com o circuito aberto e entram quando responderem
+            created.add(pool);
         });
+        allPools = List.copyOf(created);
+        refreshRoutes();
 
-        if (communicators.isEmpty()) {
+        if (routes.pools().isEmpty()) {
+            allPools.forEach(ServerConnectionPool::close);
             erro("Nenhum servidor disponível para comunicação.");
             throw new Exception("Nenhum servidor disponível para comunicação.");
         }
+        healthChecker = new HealthChecker(allPools, breakerPolicy, this::refreshRoutes);
     }
 
     public void startCommunicationDrones() throws Exception {
+        if (running) {
+            return;
+        }
         try {
-            dataSocket = new MulticastSocket(port);
             grupo = new InetSocketAddress(InetAddress.getByName(host), port);
-            dataSocket.joinGroup(grupo, NetworkInterface.getByName("Ethernet"));
+
+            if (receiveMode == ReceiveMode.CHANNEL) {
+                dataChannel = DatagramChannel.open(StandardProtocolFamily.INET)
+                        .setOption(StandardSocketOptions.SO_REUSEADDR, true)
+                        .bind(new InetSocketAddress(port));
+                membership = dataChannel.join(grupo.getAddress(), networkInterface != null ? networkInterface : defaultMulticastInterface());
+            } else {
+                dataSocket = new MulticastSocket(port);
+                dataSocket.joinGroup(grupo, networkInterface);
+            }
             running = true;
+            info("DataCenter recebendo dados dos drones no modo " + receiveMode.getValue());
         } catch (Exception e) {
             throw new Exception("Não foi possível iniciar o DataCenter na porta " + port + " em " + host, e);
         }
     }
 
+    // DatagramChannel.join exige uma interface explícita, ao contrário do MulticastSocket
+    private static NetworkInterface defaultMulticastInterface() throws Exception {
+        return NetworkInterface.networkInterfaces()
+                .filter(ni -> {
+                    try {
+                        return ni.isUp() && ni.supportsMulticast();
+                    } catch (Exception e) {
+                        return false;
+                    }
+                })
+                .findFirst()
+                .orElseThrow(() -> new Exception("Nenhuma interface de rede com suporte a multicast disponível."));
+    }
+
     public void start() throws IllegalStateException {
+        startNanos = System.nanoTime();
+        if (receiveMode == ReceiveMode.CHANNEL) {
+            startChannel();
+        } else {
+            startSocket();
+        }
+    }
+
+    private void startSocket() {
         try {
             while (running) {
-                byte[] buffer = new byte[1024];
+                byte[] buffer = new byte[DroneBatch.MAX_DATAGRAM];
                 DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
                 dataSocket.receive(packet);
+                receivedPackets.increment();
+                PacketReceivedEvent event = new PacketReceivedEvent();
+                event.begin();
 
                 threadPool.execute(() -> {
                     try {
-                        handleDroneConnection(DatagramDrone.fromPacket(packet));
+                        SocketAddress source = packet.getSocketAddress();
+                        int readingBytes = DroneBatch.readingSize(packet.getData()[packet.getOffset()], packet.getLength());
+                        receivedReadings.add(DroneBatch.forEach(packet.getData(), packet.getOffset(), packet.getLength(),
+                                reading -> handleReading(event, reading, source, packet.getLength(), readingBytes)));
                     } catch (Exception e) {
                         erro("Erro ao processar dados do drone: " + e.getMessage());
+                    } finally {
+                        event.commit();
                     }
                 });
             }
@@ -96,86 +193,256 @@ public class DataCenter implements AutoCloseable, Loggable {
         }
     }
 
-    private void handleDroneConnection(DatagramDrone packet) {
-        System.out.println("\nDados recebidos do Drone: " + packet);
-
-        int chosenIndex = chosenServer(packet.getDroneId().getOrdinal());
-        ServerInfo server = servers.get(chosenIndex);
-
+    /*
+     * Recepção via DatagramChannel: cada datagrama é lido em um ByteBuffer direto
+     * retirado do pool, e o buffer volta ao pool assim que o processamento termina.
+     */
+    private void startChannel() {
         try {
-            if (sendToCommunicator(chosenIndex, packet)) {
-                info("Dados enviados para o servidor: " + server.getHost() + ":" + server.getPort());
-            } else {
-                erro("Servidor " + server.getHost() + ":" + server.getPort() + " não está conectado.");
-                if (reconnectCommunicator(chosenIndex, server)) {
-                    sendToCommunicator(chosenIndex, packet);
-                    System.out.println("Dados reenviados para o servidor: " + server.getHost() + ":" + server.getPort());
-                } else {
-                    erro("Falha ao reconectar ao servidor " + server.getHost() + ":" + server.getPort());
-                    removeServerAndCommunicator(chosenIndex);
+            while (running) {
+                ByteBuffer buffer = bufferPool.acquire();
+                SocketAddress source;
+                try {
+                    source = dataChannel.receive(buffer);
+                } catch (Exception e) {
+                    bufferPool.release(buffer);
+                    throw e;
                 }
+                buffer.flip();
+                receivedPackets.increment();
+                PacketReceivedEvent event = new PacketReceivedEvent();
+                event.begin();
+
+                threadPool.execute(() -> {
+                    try {
+                        int length = buffer.remaining();
+                        int readingBytes = DroneBatch.readingSize(length > 0 ? buffer.get(buffer.position()) : 0, length);
+                        receivedReadings.add(DroneBatch.forEach(buffer, reading -> handleReading(event, reading, source, length, readingBytes)));
+                    } catch (Exception e) {
+                        erro("Erro ao processar dados do drone: " + e.getMessage());
+                    } finally {
+                        bufferPool.release(buffer);
+                        event.commit();
+                    }
+                });
             }
         } catch (Exception e) {
-            erro("Houve algum erro ao enviar os dados do drone para o servidor: " + e.getMessage());
+            info("Conexão encerrada ou erro inesperado no DataCenter: " + e.getMessage());
+        } finally {
+            close();
         }
     }
 
-    private int chosenServer(int idHasCode) {
-        // Hash-based Load Balancing
-        int serverIndex = random.nextInt(servers.size());
+    public long getReceivedPackets() {
+        return receivedPackets.sum();
+    }
 
-        System.out.println("\nHash do Drone: " + idHasCode + ", Servidor escolhido: " + serverIndex);
+    public long getReceivedReadings() {
+        return receivedReadings.sum();
+    }
 
-        // Pega o servidor escolhido para processar os dados
-        return serverIndex;
+    // Taxa média de recepção desde o início de start()
+    public double getPacketsPerSecond() {
+        long elapsed = System.nanoTime() - startNanos;
+        return startNanos == 0 || elapsed <= 0 ? 0 : receivedPackets.sum() / (elapsed / 1_000_000_000.0);
     }
 
-    private boolean sendToCommunicator(int index, DatagramDrone packet) {
-        Communicator communicator = communicators.get(index);
-        if (communicator != null && communicator.isConnected()) {
-            communicator.sendJsonMessage(packet);
-            return true;
+    // Drone e sequência do evento do datagrama são os da primeira leitura
+    private void handleReading(PacketReceivedEvent event, DatagramDrone reading, SocketAddress source, int packetBytes, int readingBytes) {
+        if (event.isEnabled() && event.readings++ == 0) {
+            event.set(reading, packetBytes);
         }
-        return false;
+        handleDroneConnection(reading, source, readingBytes);
     }
 
-    private boolean reconnectCommunicator(int index, ServerInfo server) {
+    private void handleDroneConnection(DatagramDrone packet, SocketAddress source, int bytes) {
+        DroneReadingEvent event = new DroneReadingEvent();
+        event.begin();
+        ServerConnectionPool accepted = null;
         try {
-            Communicator newCommunicator = new Communicator(new Socket(server.getHost(), server.getPort()), "DataCenter");
-            communicators.set(index, newCommunicator);
-            return newCommunicator.isConnected();
-        } catch (Exception e) {
-            erro("Erro ao tentar reconectar: " + e.getMessage());
-            return false;
+            accepted = route(packet, source);
+        } finally {
+            if (event.shouldCommit()) {
+                event.set(packet, bytes);
+                event.server = accepted != null ? accepted.getServer().getHost() + ":" + accepted.getServer().getPort() : null;
+                event.commit();
+            }
         }
     }
 
-    private void removeServerAndCommunicator(int index) {
+    // Devolve o pool que aceitou a leitura, ou null se ela foi descartada
+    private ServerConnectionPool route(DatagramDrone packet, SocketAddress source) {
+        receiveLatency.recordSinceOrigin(packet.getTimestamp());
+        debug(() -> "Dados recebidos do Drone: " + packet);
+
+        if (!checkSequence(packet, source)) {
+            return null;
+        }
+
+        Routes current = routes; // Mesmas listas para a escolha e o envio
+        if (current.pools().isEmpty()) {
+            erro("Nenhum servidor disponível. Leitura descartada: " + packet);
+            return null;
+        }
+        ServerConnectionPool pool = current.pools().get(chosenServer(packet, current.stats()));
+
         try {
-            Communicator removedCommunicator = communicators.remove(index);
-            if (removedCommunicator != null) {
-                removedCommunicator.close();
+            if (send(pool, packet)) {
+                return pool;
+            }
+            // Sem esperar reconexão: tenta os demais servidores com circuito fechado
+            for (ServerConnectionPool other : current.pools()) {
+                if (other != pool && send(other, packet)) {
+                    debug(() -> "Dados redirecionados para o servidor: " + other.getServer().getHost() + ":" + other.getServer().getPort());
+                    return other;
+                }
             }
+            erro("Nenhum servidor aceitou a leitura. Leitura descartada: " + packet);
         } catch (Exception e) {
-            erro("Erro ao fechar communicator: " + e.getMessage());
+            erro("Houve algum erro ao enviar os dados do drone para o servidor: " + e.getMessage());
+        }
+        return null;
+    }
+
+    // Registra a sequência da leitura; false para duplicatas, que não seguem para os servidores
+    private boolean checkSequence(DatagramDrone packet, SocketAddress source) {
+        LongStream.Builder gaps = LongStream.builder();
+        LossDetector.Outcome outcome = lossDetector.record(packet.getDroneId(), packet.getMember(), packet.getEpoch(),
+                packet.getSequence(), gaps::add);
+        switch (outcome) {
+            case DUPLICATE -> {
+                debug(() -> "Leitura duplicada do drone " + packet.getDroneId() + " descartada: " + packet.getSequence());
+                return false;
+            }
+            case GAP -> {
+                long[] missing = gaps.build().toArray();
+                erro("Drone " + packet.getDroneId() + " perdeu " + missing.length + " leitura(s) antes da " + packet.getSequence());
+                if (nackEnabled && source != null) {
+                    sendNack(packet.getDroneId(), missing, source);
+                }
+            }
+            case RESTART -> info("Drone " + packet.getDroneId() + " reiniciou a contagem na leitura " + packet.getSequence());
+            case RECOVERED -> info("Leitura " + packet.getSequence() + " do drone " + packet.getDroneId() + " recuperada");
+            default -> { }
+        }
+        return true;
+    }
+
+    // Pede ao drone (no endereço de origem do datagrama) que reenvie as leituras perdidas
+    private void sendNack(DroneId droneId, long[] missing, SocketAddress source) {
+        for (int offset = 0; offset < missing.length; offset += DroneNack.MAX_SEQUENCES) {
+            int count = Math.min(DroneNack.MAX_SEQUENCES, missing.length - offset);
+            long[] chunk = offset == 0 && count == missing.length ? missing : Arrays.copyOfRange(missing, offset, offset + count);
+            ByteBuffer nack = ByteBuffer.allocate(DroneNack.size(count));
+            DroneNack.encode(droneId, chunk, count, nack);
+            nack.flip();
+            try {
+                if (dataChannel != null) {
+                    dataChannel.send(nack, source);
+                } else {
+                    dataSocket.send(new DatagramPacket(nack.array(), nack.limit(), source));
+                }
+            } catch (Exception e) {
+                erro("Erro ao enviar NACK para o drone " + droneId + ": " + e.getMessage());
+            }
         }
-        servers.remove(index);
+    }
+
+    public LossDetector.Stats getLossStats(DroneId droneId) {
+        return lossDetector.getStats(droneId);
+    }
+
+    private boolean send(ServerConnectionPool pool, DatagramDrone packet) {
+        ServerInfo server = pool.getServer();
+        if (!pool.getBreaker().isClosed()) {
+            return false;
+        }
+        long start = System.nanoTime();
+        // O pool registra sucessos e falhas de escrita no circuito do servidor
+        if (pool.send(packet)) {
+            sendLatency.recordSince(start);
+            debug(() -> "Dados enviados para o servidor: " + server.getHost() + ":" + server.getPort());
+            return true;
+        }
+        erro("Servidor " + server.getHost() + ":" + server.getPort() + " não aceitou a leitura.");
+        if (!pool.getBreaker().isClosed()) {
+            erro("Circuito do servidor " + server.getHost() + ":" + server.getPort() + " aberto.");
+            refreshRoutes();
+        }
+        return false;
+    }
+
+    private int chosenServer(DatagramDrone packet, List<ServerStats> current) {
+        int serverIndex = selector.select(packet, current);
+
+        debug(() -> "Drone: " + packet.getDroneId() + ", Servidor escolhido: " + serverIndex + " (" + selector + ")");
+
+        // Pega o servidor escolhido para processar os dados
+        return serverIndex;
+    }
+
+    public RoleMetrics getMetrics() {
+        return metrics;
+    }
+
+    public List<ServerConnectionPool> getPools() {
+        return routes.pools();
+    }
+
+    public List<ServerConnectionPool> getAllPools() {
+        return allPools;
+    }
+
+    // Substitui as listas inteiras para que as threads de envio nunca vejam uma alteração pela metade
+    private synchronized void refreshRoutes() {
+        List<ServerConnectionPool> closed = allPools.stream().filter(pool -> pool.getBreaker().isClosed()).toList();
+        routes = new Routes(closed, closed.stream().map(ServerConnectionPool::getStats).toList());
+    }
+
+    // Pools disponíveis e, na mesma ordem, os contadores que o ServerSelector enxerga
+    private record Routes(List<ServerConnectionPool> pools, List<ServerStats> stats) {
+        static final Routes EMPTY = new Routes(List.of(), List.of());
     }
 
     @Override
     public void close() {
+        if (running) {
+            info("DataCenter (" + receiveMode.getValue() + ") recebeu " + getReceivedPackets() + " pacotes (" + getReceivedReadings() + " leituras), "
+                    + String.format("%.2f", getPacketsPerSecond()) + " pacotes/s");
+            allPools.forEach(pool -> info("Servidor " + pool));
+            for (DroneId droneId : DroneId.values()) {
+                info("Perdas do drone " + lossDetector.getStats(droneId));
+            }
+            info("Latências do " + metrics);
+        }
         running = false;
+        if (dataChannel != null && dataChannel.isOpen()) {
+            try {
+                if (membership != null) {
+                    membership.drop();
+                }
+                dataChannel.close();
+            } catch (Exception e) {
+                erro("Erro ao fechar o canal do DataCenter: " + e.getMessage());
+            }
+        }
         if (dataSocket != null && !dataSocket.isClosed()) {
             try {
-                dataSocket.leaveGroup(grupo, NetworkInterface.getByName("Ethernet"));
-                dataSocket.close();
+                dataSocket.leaveGroup(grupo, networkInterface);
             } catch (Exception e) {
-                erro("Erro ao fechar o socket do DataCenter: " + e.getMessage());
+                erro("Erro ao sair do grupo multicast do DataCenter: " + e.getMessage());
+            } finally {
+                dataSocket.close();
             }
         }
         if (threadPool != null && !threadPool.isShutdown()) {
             threadPool.shutdown();
         }
+        if (healthChecker != null) {
+            healthChecker.close();
+        }
+        allPools.forEach(ServerConnectionPool::close);
+        metrics.close();
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,80 @@
+package com.climate.datas.datacenter;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.climate.datas.utils.Loggable;
+
+/*
+ * Verificação de saúde dos servidores do DataCenter em segundo plano.
+ *
+ * A cada intervalo: sonda as conexões de cada servidor (o socket local continua
+ * aberto depois que o servidor morre, então o que vale é o fim de fluxo ou erro
+ * lido do outro lado), abre o circuito de servidores sem nenhuma conexão viva,
+ * reabre conexões caídas de servidores saudáveis e, quando o backoff de um
+ * circuito aberto termina, tenta reconectar (HALF_OPEN). Toda reconexão
+ * acontece nesta thread, nunca na thread que processa as leituras.
+ */
+public class HealthChecker implements AutoCloseable, Loggable {
+    private final List<ServerConnectionPool> pools;
+    private final Runnable onChange;                // Avisado quando algum circuito muda de estado
+    private final ScheduledExecutorService scheduler;
+
+    public HealthChecker(List<ServerConnectionPool> pools, BreakerPolicy policy, Runnable onChange) {
+        this.pools = List.copyOf(pools);
+        this.onChange = onChange;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "datacenter-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::check, policy.checkIntervalMillis(), policy.checkIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void check() {
+        boolean changed = false;
+        for (ServerConnectionPool pool : pools) {
+            try {
+                changed |= check(pool);
+            } catch (Exception e) {
+                erro("Erro na verificação de saúde do servidor " + pool.getServer() + ": " + e.getMessage());
+            }
+        }
+        if (changed) {
+            onChange.run();
+        }
+    }
+
+    private boolean check(ServerConnectionPool pool) {
+        CircuitBreaker breaker = pool.getBreaker();
+        if (breaker.isClosed()) {
+            if (pool.probe()) {
+                pool.reconnect();   // Repõe apenas as conexões que caíram
+                return false;
+            }
+            if (breaker.trip()) {
+                erro("Servidor " + pool.getServer() + " sem conexões ativas. Circuito aberto.");
+                return true;
+            }
+            return false;
+        }
+        if (!breaker.tryHalfOpen(System.currentTimeMillis())) {
+            return false;
+        }
+        if (pool.reconnect()) {
+            breaker.recordSuccess();
+            info("Servidor " + pool.getServer() + " voltou a responder. Circuito fechado.");
+            return true;
+        }
+        breaker.recordFailure();
+        message("Servidor " + pool.getServer() + " continua indisponível: " + breaker);
+        return false;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,167 @@
+package com.climate.datas.datacenter;
+
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+
+import com.climate.datas.utils.drone.DroneId;
+
+/*
+ * Detector de perdas nas leituras dos drones, pelo número de sequência.
+ *
+ * Para cada drone, identificado pela região (DroneId) e pelo membro dentro
+ * dela (uma frota tem vários drones por região, cada um com sua contagem),
+ * guarda a maior sequência vista e as sequências que faltam (lacunas) dentro
+ * de uma janela. Uma lacuna preenchida depois (atraso ou
+ * retransmissão) é contada como recuperada; uma lacuna que sai da janela é
+ * contada como perdida. Sequência 0 significa leitura sem sequência e é ignorada.
+ *
+ * O reinício do drone é reconhecido pela época (momento em que ele ligou): uma
+ * época mais nova recomeça a contagem, mesmo que a nova sequência ainda esteja
+ * abaixo da maior vista; uma época mais antiga é leitura atrasada da execução
+ * anterior. Sem época (0), só a sequência 1 depois de outras indica reinício.
+ */
+public class LossDetector {
+    public enum Outcome {
+        IN_ORDER,       // Próxima sequência esperada
+        GAP,            // Chegou adiantada: as anteriores que faltam viraram lacunas
+        RECOVERED,      // Preencheu uma lacuna
+        DUPLICATE,      // Já recebida (ou já dada como perdida)
+        RESTART,        // O drone recomeçou a contagem (nova época)
+        STALE,          // Atrasada de uma época anterior à atual
+        UNSEQUENCED     // Leitura sem número de sequência
+    }
+
+    private final int window;                       // Lacunas acompanhadas por drone
+    // Estado de cada drone (membro) por região; os membros aparecem conforme chegam
+    private final Map<Integer, DroneState>[] states;
+
+    @SuppressWarnings("unchecked")
+    public LossDetector(int window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("A janela de lacunas deve ser positiva.");
+        }
+        this.window = window;
+        this.states = new Map[DroneId.values().length];
+        for (DroneId droneId : DroneId.values()) {
+            states[droneId.getOrdinal()] = new ConcurrentHashMap<>();
+        }
+    }
+
+    // Registra a leitura do membro da região, na época informada (0: desconhecida);
+    // cada nova lacuna é entregue a missing (para o NACK)
+    public Outcome record(DroneId droneId, int member, long epoch, long sequence, LongConsumer missing) {
+        if (sequence <= 0) {
+            return Outcome.UNSEQUENCED;
+        }
+        DroneState state = states[droneId.getOrdinal()].computeIfAbsent(member, m -> new DroneState());
+        synchronized (state) {
+            return state.record(epoch, sequence, missing);
+        }
+    }
+
+    // Totais da região, somando todos os seus membros
+    public Stats getStats(DroneId droneId) {
+        Map<Integer, DroneState> region = states[droneId.getOrdinal()];
+        long received = 0, recovered = 0, duplicates = 0, outstanding = 0, lost = 0, restarts = 0, stale = 0;
+        for (DroneState state : region.values()) {
+            synchronized (state) {
+                received += state.received;
+                recovered += state.recovered;
+                duplicates += state.duplicates;
+                outstanding += state.missing.size();
+                lost += state.lost;
+                restarts += state.restarts;
+                stale += state.stale;
+            }
+        }
+        return new Stats(droneId, region.size(), received, recovered, duplicates, outstanding, lost, restarts, stale);
+    }
+
+    public record Stats(DroneId droneId, int members, long received, long recovered, long duplicates, long outstanding,
+                        long lost, long restarts, long stale) {
+        // Fração das leituras esperadas que não chegou (lacunas abertas e perdidas)
+        public double lossRate() {
+            long expected = received + outstanding + lost;
+            return expected == 0 ? 0 : (double) (outstanding + lost) / expected;
+        }
+
+        @Override
+        public String toString() {
+            return droneId.getValue() + "[drones=" + members + ", recebidas=" + received + ", recuperadas=" + recovered
+                    + ", duplicadas=" + duplicates + ", pendentes=" + outstanding + ", perdidas=" + lost
+                    + ", reinícios=" + restarts + ", atrasadas=" + stale + ", perda=" + String.format("%.3f%%", lossRate() * 100) + "]";
+        }
+    }
+
+    private final class DroneState {
+        private long epoch = 0;                     // Época da execução acompanhada (0: desconhecida)
+        private long highest = 0;                   // Maior sequência recebida (0: nenhuma)
+        private final TreeSet<Long> missing = new TreeSet<>();
+        private long received = 0;
+        private long recovered = 0;
+        private long duplicates = 0;
+        private long lost = 0;
+        private long restarts = 0;
+        private long stale = 0;
+
+        Outcome record(long epoch, long sequence, LongConsumer missingConsumer) {
+            if (highest == 0) {
+                this.epoch = epoch;
+                highest = sequence;
+                received++;
+                return Outcome.IN_ORDER;
+            }
+            if (epoch < this.epoch) {
+                stale++;
+                return Outcome.STALE;
+            }
+            if (epoch > this.epoch || (epoch == 0 && sequence == 1 && highest > 1)) {
+                restart(epoch, sequence);
+                return Outcome.RESTART;
+            }
+            if (sequence == highest + 1) {
+                highest = sequence;
+                received++;
+                return Outcome.IN_ORDER;
+            }
+            if (sequence > highest) {
+                long first = Math.max(highest + 1, sequence - window);
+                lost += first - (highest + 1);      // Lacunas maiores que a janela não têm recuperação
+                for (long s = first; s < sequence; s++) {
+                    addMissing(s);
+                    missingConsumer.accept(s);
+                }
+                highest = sequence;
+                received++;
+                return Outcome.GAP;
+            }
+            if (missing.remove(sequence)) {
+                recovered++;
+                received++;
+                return Outcome.RECOVERED;
+            }
+            duplicates++;
+            return Outcome.DUPLICATE;
+        }
+
+        // As lacunas da execução anterior não serão mais preenchidas: viram perdas
+        private void restart(long epoch, long sequence) {
+            lost += missing.size();
+            missing.clear();
+            this.epoch = epoch;
+            highest = sequence;
+            received++;
+            restarts++;
+        }
+
+        private void addMissing(long sequence) {
+            missing.add(sequence);
+            if (missing.size() > window) {
+                missing.pollFirst();
+                lost++;
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.climate.datas.datacenter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import com.climate.datas.utils.common.Communicator;
+import com.climate.datas.utils.drone.DatagramDrone;
+import lombok.Getter;
+
+// Uma conexão TCP do pool de um servidor, com a sua própria contagem de envios
+public class PooledConnection implements AutoCloseable {
+    @Getter
+    private final int slot;                         // Posição no pool
+    private final Communicator communicator;
+    private final LongAdder sent = new LongAdder();
+    private final long openedNanos = System.nanoTime();
+
+    PooledConnection(int slot, Communicator communicator) {
+        this.slot = slot;
+        this.communicator = communicator;
+    }
+
+    // As escritas de um Communicator são sincronizadas, então linhas de threads diferentes não se misturam.
+    // Uma escrita que falha fecha a conexão, então false indica que a leitura pode não ter sido entregue.
+    boolean send(DatagramDrone packet) {
+        communicator.sendJsonMessage(packet);
+        if (!communicator.isConnected()) {
+            return false;
+        }
+        sent.increment();
+        return true;
+    }
+
+    public boolean isConnected() {
+        return communicator.isConnected();
+    }
+
+    // Sonda o servidor; uma conexão cujo outro lado caiu é fechada
+    boolean probe() {
+        if (communicator.probe()) {
+            return true;
+        }
+        communicator.close();
+        return false;
+    }
+
+    public long getPendingBytes() {
+        return communicator.getPendingBytes();
+    }
+
+    public long getSent() {
+        return sent.sum();
+    }
+
+    // Mensagens por segundo desde a abertura da conexão
+    public double getThroughput() {
+        double seconds = (System.nanoTime() - openedNanos) / 1_000_000_000.0;
+        return seconds <= 0 ? 0 : sent.sum() / seconds;
+    }
+
+    @Override
+    public void close() {
+        communicator.close();
+    }
+
+    @Override
+    public String toString() {
+        return "#" + slot + "[enviados=" + getSent() + ", " + String.format("%.1f", getThroughput()) + " msg/s]";
+    }
+}
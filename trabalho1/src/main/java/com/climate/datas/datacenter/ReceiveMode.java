@@ -0,0 +1,35 @@
+package com.climate.datas.datacenter;
+
+import lombok.Getter;
+
+/*
+ * Motor de recepção dos datagramas dos drones no DataCenter.
+ *
+ * SOCKET usa o MulticastSocket tradicional (um byte[] e um DatagramPacket por pacote).
+ * CHANNEL usa um DatagramChannel com ByteBuffers diretos reaproveitados de um pool.
+ *
+ * O modo pode ser escolhido com a propriedade -Ddatacenter.receive=socket|channel.
+ */
+@Getter
+public enum ReceiveMode {
+    SOCKET("socket"), CHANNEL("channel");
+
+    private final String value;
+
+    ReceiveMode(String value) {
+        this.value = value;
+    }
+
+    public static ReceiveMode fromValue(String value) {
+        for (ReceiveMode mode : ReceiveMode.values()) {
+            if (mode.getValue().equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        return SOCKET;
+    }
+
+    public static ReceiveMode fromProperty() {
+        return fromValue(System.getProperty("datacenter.receive", SOCKET.getValue()));
+    }
+}
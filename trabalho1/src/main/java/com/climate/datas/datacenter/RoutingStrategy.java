@@ -0,0 +1,129 @@
+package com.climate.datas.datacenter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.climate.datas.loadbalancer.ConsistentHashRing;
+import com.climate.datas.utils.ServerInfo;
+import com.climate.datas.utils.drone.DatagramDrone;
+import com.climate.datas.utils.drone.DroneId;
+import lombok.Getter;
+
+/*
+ * Estratégias de roteamento das leituras do DataCenter para os servidores.
+ *
+ * HASH mantém cada drone (DroneId e membro) sempre no mesmo servidor, por um
+ * anel de hash consistente dos servidores disponíveis: quando um circuito abre
+ * ou fecha, só os drones daquele servidor mudam de lugar.
+ * POWER_OF_TWO sorteia dois servidores e usa o de menor fila de escrita (empate: menos envios em andamento).
+ * EWMA usa o servidor com menor média móvel da fila de escrita, ponderada pelos envios em andamento.
+ * RANDOM sorteia um servidor qualquer (comportamento original).
+ *
+ * Sem confirmações dos servidores não há latência de processamento a medir: a
+ * carga vem da fila de escrita das conexões (ver ServerStats).
+ *
+ * Pode ser escolhida com a propriedade -Ddatacenter.routing=hash|p2c|ewma|random.
+ */
+@Getter
+public enum RoutingStrategy implements ServerSelector {
+    HASH("hash") {
+        // Anel dos servidores disponíveis; refeito só quando o DataCenter troca a lista
+        private volatile HashRoutes routes = HashRoutes.of(List.of());
+
+        @Override
+        public int select(DatagramDrone packet, List<ServerStats> servers) {
+            HashRoutes current = routes;
+            if (current.servers() != servers) {
+                current = HashRoutes.of(servers);
+                routes = current;
+            }
+            long key = ConsistentHashRing.fmix64(((long) packet.getMember() * DroneId.values().length
+                    + packet.getDroneId().getOrdinal() + 1) * KEY_MIX);
+            return current.indexes().get(current.ring().get(key));
+        }
+    },
+    POWER_OF_TWO("p2c") {
+        @Override
+        public int select(DatagramDrone packet, List<ServerStats> servers) {
+            int size = servers.size();
+            if (size == 1) {
+                return 0;
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int first = random.nextInt(size);
+            int second = random.nextInt(size - 1);
+            if (second >= first) {
+                second++;
+            }
+            ServerStats a = servers.get(first);
+            ServerStats b = servers.get(second);
+            long queuedA = a.getQueuedBytes();
+            long queuedB = b.getQueuedBytes();
+            if (queuedA != queuedB) {
+                return queuedB < queuedA ? second : first;
+            }
+            return b.getInFlight() < a.getInFlight() ? second : first;
+        }
+    },
+    EWMA("ewma") {
+        @Override
+        public int select(DatagramDrone packet, List<ServerStats> servers) {
+            int size = servers.size();
+            // Começa em uma posição sorteada para que os empates (servidores ociosos) não vão sempre ao primeiro
+            int start = ThreadLocalRandom.current().nextInt(size);
+            int best = start;
+            double bestCost = Double.MAX_VALUE;
+            for (int i = 0; i < size; i++) {
+                int index = (start + i) % size;
+                ServerStats stats = servers.get(index);
+                double cost = (stats.sampleQueuedBytes() + 1) * (stats.getInFlight() + 1);
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    best = index;
+                }
+            }
+            return best;
+        }
+    },
+    RANDOM("random") {
+        @Override
+        public int select(DatagramDrone packet, List<ServerStats> servers) {
+            return ThreadLocalRandom.current().nextInt(servers.size());
+        }
+    };
+
+    private static final int VNODES = 160;                  // Pontos por servidor no anel do HASH
+    private static final long KEY_MIX = 0x9E3779B97F4A7C15L;
+
+    private final String value;
+
+    RoutingStrategy(String value) {
+        this.value = value;
+    }
+
+    public static RoutingStrategy fromValue(String value) {
+        for (RoutingStrategy strategy : RoutingStrategy.values()) {
+            if (strategy.getValue().equalsIgnoreCase(value)) {
+                return strategy;
+            }
+        }
+        return POWER_OF_TWO;
+    }
+
+    public static RoutingStrategy fromProperty() {
+        return fromValue(System.getProperty("datacenter.routing", POWER_OF_TWO.getValue()));
+    }
+
+    // Anel do HASH e a posição de cada servidor na lista de onde ele foi montado
+    private record HashRoutes(List<ServerStats> servers, ConsistentHashRing<ServerInfo> ring, Map<ServerInfo, Integer> indexes) {
+        static HashRoutes of(List<ServerStats> servers) {
+            Map<ServerInfo, Integer> indexes = new HashMap<>();
+            for (int i = 0; i < servers.size(); i++) {
+                indexes.put(servers.get(i).getServer(), i);
+            }
+            return new HashRoutes(servers, ConsistentHashRing.of(servers.stream().map(ServerStats::getServer).toList(), VNODES), indexes);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.climate.datas.datacenter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.climate.datas.utils.Loggable;
+import com.climate.datas.utils.ServerInfo;
+import com.climate.datas.utils.common.BatchPolicy;
+import com.climate.datas.utils.common.Communicator;
+import com.climate.datas.utils.drone.DatagramDrone;
+import lombok.Getter;
+
+/*
+ * Pool de conexões TCP do DataCenter com um servidor.
+ *
+ * Os envios são distribuídos entre as conexões em rodízio (striping), então
+ * threads concorrentes escrevem em sockets diferentes em vez de disputar o
+ * mesmo. Uma conexão caída é pulada e pode ser reaberta por reconnect() sem
+ * afetar as demais. Os contadores de carga do servidor ficam em um ServerStats
+ * (getStats()), que é o que as estratégias de roteamento enxergam do pool inteiro.
+ *
+ * O tamanho do pool é definido com -Ddatacenter.connections (padrão 4).
+ */
+public class ServerConnectionPool implements AutoCloseable, Loggable {
+    @Getter
+    private final ServerInfo server;
+    @Getter
+    private final ServerStats stats;                // Carga do servidor, usada pelo roteamento
+    private final AtomicReferenceArray<PooledConnection> connections;
+    private final AtomicInteger next = new AtomicInteger();
+    private final BatchPolicy batchPolicy;
+    private volatile boolean closed = false;
+    @Getter
+    private final CircuitBreaker breaker;           // Estado de saúde do servidor
+
+    public ServerConnectionPool(ServerInfo server, int size, BatchPolicy batchPolicy) {
+        this(server, size, batchPolicy, new CircuitBreaker(BreakerPolicy.DEFAULT));
+    }
+
+    public ServerConnectionPool(ServerInfo server, int size, BatchPolicy batchPolicy, CircuitBreaker breaker) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("O pool de conexões deve ter ao menos uma conexão.");
+        }
+        this.server = server;
+        this.stats = new ServerStats(server, this::getQueuedBytes);
+        this.breaker = breaker;
+        this.connections = new AtomicReferenceArray<>(size);
+        this.batchPolicy = batchPolicy;
+        for (int slot = 0; slot < size; slot++) {
+            connections.set(slot, open(slot));
+        }
+        if (!isAvailable()) {
+            breaker.trip();
+        }
+    }
+
+    public static int sizeFromProperty() {
+        return Integer.getInteger("datacenter.connections", 4);
+    }
+
+    /*
+     * Envia pela próxima conexão ativa do rodízio. Uma escrita que falha fecha a
+     * conexão, conta uma falha no circuito e tenta a conexão seguinte. Devolve
+     * false quando nenhuma conexão aceitou a leitura (ou o circuito abriu).
+     */
+    public boolean send(DatagramDrone packet) {
+        int size = connections.length();
+        int start = next.getAndIncrement();
+        for (int i = 0; i < size; i++) {
+            PooledConnection connection = connections.get(Math.floorMod(start + i, size));
+            if (connection == null || !connection.isConnected()) {
+                continue;
+            }
+            stats.begin();
+            boolean success = false;
+            try {
+                success = connection.send(packet);
+            } finally {
+                stats.complete(success);
+            }
+            if (success) {
+                breaker.recordSend();
+                return true;
+            }
+            erro("Falha ao escrever na conexão #" + connection.getSlot() + " com o servidor " + server + ".");
+            if (breaker.recordFailure() || !breaker.isClosed()) {
+                return false;
+            }
+        }
+        breaker.recordFailure();
+        return false;
+    }
+
+    // Sonda o servidor por todas as conexões (as que caíram são fechadas); true se alguma segue viva
+    public boolean probe() {
+        boolean alive = false;
+        for (int slot = 0; slot < connections.length(); slot++) {
+            PooledConnection connection = connections.get(slot);
+            if (connection != null && connection.probe()) {
+                alive = true;
+            }
+        }
+        return alive;
+    }
+
+    // Reabre as conexões caídas; true se ao menos uma conexão ficou disponível
+    public boolean reconnect() {
+        if (closed) {
+            return false;
+        }
+        for (int slot = 0; slot < connections.length(); slot++) {
+            PooledConnection current = connections.get(slot);
+            if (current != null && current.isConnected()) {
+                continue;
+            }
+            PooledConnection replacement = open(slot);
+            if (replacement == null) {
+                continue;
+            }
+            if (connections.compareAndSet(slot, current, replacement)) {
+                if (current != null) {
+                    current.close();
+                }
+            } else {
+                replacement.close();  // Outra thread reconectou este slot primeiro
+            }
+        }
+        return isAvailable();
+    }
+
+    public boolean isAvailable() {
+        for (int slot = 0; slot < connections.length(); slot++) {
+            PooledConnection connection = connections.get(slot);
+            if (connection != null && connection.isConnected()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Bytes aceitos pelas conexões e ainda não entregues ao socket
+    public long getQueuedBytes() {
+        long total = 0;
+        for (int slot = 0; slot < connections.length(); slot++) {
+            PooledConnection connection = connections.get(slot);
+            if (connection != null) {
+                total += connection.getPendingBytes();
+            }
+        }
+        return total;
+    }
+
+    public int size() {
+        return connections.length();
+    }
+
+    public List<PooledConnection> getConnections() {
+        List<PooledConnection> list = new ArrayList<>(connections.length());
+        for (int slot = 0; slot < connections.length(); slot++) {
+            PooledConnection connection = connections.get(slot);
+            if (connection != null) {
+                list.add(connection);
+            }
+        }
+        return list;
+    }
+
+    // Abre a conexão com o servidor no modo de rede configurado (-Dcommunicator.io)
+    private PooledConnection open(int slot) {
+        Communicator communicator = new Communicator("DataCenter-" + server.getPort() + "#" + slot);
+        communicator.connect(server.getHost(), server.getPort());
+        if (!communicator.isConnected()) {
+            communicator.close();
+            return null;
+        }
+        communicator.enableBatching(batchPolicy);
+        return new PooledConnection(slot, communicator);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (int slot = 0; slot < connections.length(); slot++) {
+            PooledConnection connection = connections.getAndSet(slot, null);
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (Exception e) {
+                    erro("Erro ao fechar conexão com o servidor " + getServer() + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return stats + " circuito=" + breaker + " conexões=" + getConnections();
+    }
+}
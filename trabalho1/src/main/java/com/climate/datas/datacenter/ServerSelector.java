@@ -0,0 +1,10 @@
+package com.climate.datas.datacenter;
+
+import java.util.List;
+
+import com.climate.datas.utils.drone.DatagramDrone;
+
+// Escolhe, pelos contadores de carga dos servidores disponíveis, o índice do que vai receber a leitura
+public interface ServerSelector {
+    int select(DatagramDrone packet, List<ServerStats> servers);
+}
@@ -0,0 +1,88 @@
+package com.climate.datas.datacenter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import com.climate.datas.utils.ServerInfo;
+import lombok.Getter;
+
+/*
+ * Contadores de carga de um servidor, usados pelas estratégias de roteamento.
+ *
+ * Os servidores não confirmam as leituras, então o sinal de carga é a fila de
+ * escrita: bytes já aceitos pelas conexões e ainda não entregues ao socket.
+ * Ela só cresce quando o servidor deixa de ler (o pipeline cheio enche o buffer
+ * do TCP). inFlight conta as threads dentro de um envio, que também se acumulam
+ * quando a escrita bloqueia. O tempo do envio não é usado: com buffer e
+ * agrupamento ele mede apenas a cópia para a memória.
+ */
+public class ServerStats {
+    private static final double ALPHA = 0.2;                // Peso da amostra mais recente na EWMA
+
+    @Getter
+    private final ServerInfo server;
+    private final LongSupplier queuedBytes;                 // Fila de escrita atual das conexões do servidor
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final AtomicLong ewmaBits = new AtomicLong(Double.doubleToRawLongBits(0));
+
+    public ServerStats(ServerInfo server, LongSupplier queuedBytes) {
+        this.server = server;
+        this.queuedBytes = queuedBytes;
+    }
+
+    public void begin() {
+        inFlight.incrementAndGet();
+    }
+
+    public void complete(boolean success) {
+        inFlight.decrementAndGet();
+        if (success) {
+            sent.increment();
+        } else {
+            failures.increment();
+        }
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getQueuedBytes() {
+        return queuedBytes.getAsLong();
+    }
+
+    // Soma a fila atual à média móvel e devolve a média atualizada
+    public double sampleQueuedBytes() {
+        double sample = getQueuedBytes();
+        long current;
+        long next;
+        do {
+            current = ewmaBits.get();
+            double ewma = Double.longBitsToDouble(current);
+            next = Double.doubleToRawLongBits(ewma + ALPHA * (sample - ewma));
+        } while (!ewmaBits.compareAndSet(current, next));
+        return Double.longBitsToDouble(next);
+    }
+
+    public double getEwmaQueuedBytes() {
+        return Double.longBitsToDouble(ewmaBits.get());
+    }
+
+    public long getSent() {
+        return sent.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    @Override
+    public String toString() {
+        return server.getHost() + ":" + server.getPort() + "[emAndamento=" + getInFlight() + ", enviados=" + getSent()
+                + ", falhas=" + getFailures() + ", fila=" + getQueuedBytes() + "B, filaMédia=" + String.format("%.0f", getEwmaQueuedBytes()) + "B]";
+    }
+}
@@ -4,21 +4,29 @@ import java.io.IOException;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.InetAddress;
-import java.util.Map;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
 import java.util.Scanner;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.function.BiFunction;
 import java.util.stream.Stream;
 
 import com.climate.datas.utils.Loggable;
 import com.climate.datas.utils.ServerInfo;
+import com.climate.datas.utils.common.NetworkConfig;
 import com.climate.datas.utils.drone.DatagramDrone;
+import com.climate.datas.utils.drone.DroneBatch;
+import com.climate.datas.utils.drone.DroneBatchPolicy;
+import com.climate.datas.utils.drone.DroneCodec;
 import com.climate.datas.utils.drone.DroneId;
-import com.climate.datas.utils.drone.Generators;
-import com.climate.datas.utils.drone.Range;
+import com.climate.datas.utils.drone.DroneNack;
 import com.climate.datas.utils.drone.RegionFormat;
+import com.climate.datas.utils.drone.SensorEngine;
+import com.climate.datas.utils.drone.WireFormat;
 
 /*
  * Drones são coletores de dados que sobrevoam regiões (Norte, Sul, Leste, Oeste)
@@ -46,72 +54,120 @@ public class Drone implements AutoCloseable, Loggable {
     private double humidity;                    // %
     private final ServerInfo datacenter;        // Informações do Load Balancer
     private final DatagramSocket droneSocket;   // Socket do drone para comunicação com o Data Center
-    private static final Generators g = new Generators();
+    private final WireFormat wireFormat;        // Formato das mensagens enviadas (binário ou JSON)
+    private final ByteBuffer sendBuffer = ByteBuffer.allocate(DroneCodec.SIZE); // Buffer reaproveitado no envio binário
+    private final InetSocketAddress datacenterAddress; // Endereço do DataCenter, resolvido uma única vez
+    private final DroneBatchPolicy batchPolicy;    // Agrupamento de leituras por datagrama (null: desativado)
+    private final ByteBuffer batchBuffer;          // Lote em montagem (DroneBatch)
+    private int batchCount = 0;                    // Leituras no lote atual
+    private ScheduledFuture<?> batchLinger;        // Envio do lote por orçamento de latência
+    private long sequence = 1;                  // Próximo número de sequência (0 indica leitura sem sequência)
+    private final long epoch = System.currentTimeMillis(); // Época desta execução: o DataCenter reconhece o reinício por ela
+    private final RetransmitRing retransmitRing; // Últimas leituras enviadas, para NACK (null se desativado)
+    private Thread nackListener;                // Recebe os pedidos de retransmissão do DataCenter
+    private final SensorEngine sensors;         // Modelo de geração das leituras (-Ddrone.model, -Ddrone.seed)
+    private final double[] reading = new double[SensorEngine.SENSORS]; // Última leitura gerada, sem boxing
 
     private final ScheduledExecutorService scheduler;
 
-    private static final Map<String, BiFunction<Double, Double, Double>> generators = Map.of(
-            "pressure", g::generate,
-            "solarRadiation", g::generate,
-            "temperature", g::generate,
-            "humidity", g::generate
-    );
-
-    private static final Map<DroneId, Map<String, Range>> rangesByRegion = Map.of(
-            DroneId.NORTE, Map.of(
-                    "pressure", new Range(950, 1000),
-                    "solarRadiation", new Range(800, 1200),
-                    "temperature", new Range(30, 40),
-                    "humidity", new Range(70, 90)
-            ),
-            DroneId.SUL, Map.of(
-                    "pressure", new Range(1000, 1050),
-                    "solarRadiation", new Range(400, 800),
-                    "temperature", new Range(10, 20),
-                    "humidity", new Range(60, 80)
-            ),
-            DroneId.LESTE, Map.of(
-                    "pressure", new Range(970, 1030),
-                    "solarRadiation", new Range(600, 1000),
-                    "temperature", new Range(25, 35),
-                    "humidity", new Range(50, 70)
-            ),
-            DroneId.OESTE, Map.of(
-                    "pressure", new Range(980, 1020),
-                    "solarRadiation", new Range(500, 900),
-                    "temperature", new Range(20, 30),
-                    "humidity", new Range(55, 75)
-            )
-    );
-
     public Drone(DroneId droneId) {
+        this(droneId, WireFormat.fromProperty());
+    }
+
+    public Drone(DroneId droneId, WireFormat wireFormat) {
+        this(droneId, wireFormat, SensorEngine.fromProperties());
+    }
+
+    public Drone(DroneId droneId, WireFormat wireFormat, SensorEngine sensors) {
+        this(droneId, wireFormat, sensors, NetworkConfig.fromProperties());
+    }
+
+    // Publica no grupo network.dataCenter(), saindo pela interface configurada
+    public Drone(DroneId droneId, WireFormat wireFormat, SensorEngine sensors, NetworkConfig network) {
         this.droneId = droneId;
+        this.sensors = sensors;
+        this.wireFormat = wireFormat;
         this.regionFormat = RegionFormat.fromDroneId(droneId);
         this.scheduler = Executors.newSingleThreadScheduledExecutor();
-        this.datacenter = new ServerInfo("230.0.0.1", 49999);
+        this.datacenter = network.dataCenter();
         try {
             droneSocket = new DatagramSocket();
+            NetworkInterface networkInterface = network.networkInterface();
+            if (networkInterface != null) {
+                droneSocket.setOption(StandardSocketOptions.IP_MULTICAST_IF, networkInterface);
+            }
+            datacenterAddress = new InetSocketAddress(InetAddress.getByName(datacenter.getHost()), datacenter.getPort());
         } catch (IOException e) {
             erro("Não foi possível inicializar o socket do drone " + droneId.getValue() + ": " + e.getMessage());
             throw new RuntimeException("Erro ao inicializar o drone", e);
         }
+        // Retransmissão sob pedido (-Ddrone.nack=true): só no formato binário, que é o guardado no anel
+        this.retransmitRing = Boolean.getBoolean("drone.nack") && wireFormat == WireFormat.BINARY
+                ? new RetransmitRing(Integer.getInteger("drone.nack.window", 256))
+                : null;
+        // Lotes de leituras (-Ddrone.batch=mtu,ms): só no formato binário
+        this.batchPolicy = wireFormat == WireFormat.BINARY ? DroneBatchPolicy.fromProperty("drone.batch") : null;
+        this.batchBuffer = batchPolicy != null ? ByteBuffer.allocate(batchPolicy.mtu()) : null;
     }
 
     public void start() {
+        if (retransmitRing != null && nackListener == null) {
+            nackListener = new Thread(this::listenNacks, "drone-nack-" + droneId.getValue());
+            nackListener.setDaemon(true);
+            nackListener.start();
+        }
         scheduleNext();
     }
 
+    // O DataCenter responde para o endereço de origem dos datagramas, ou seja, para este mesmo socket
+    private void listenNacks() {
+        byte[] buffer = new byte[DroneNack.size(DroneNack.MAX_SEQUENCES)];
+        DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+        while (!droneSocket.isClosed()) {
+            try {
+                packet.setLength(buffer.length);
+                droneSocket.receive(packet);
+                if (packet.getLength() == 0 || !DroneNack.isNack(buffer[0])) {
+                    continue;
+                }
+                DroneId target = DroneNack.decode(ByteBuffer.wrap(buffer, 0, packet.getLength()), this::retransmit);
+                message("Drone " + droneId.getValue() + " recebeu NACK destinado a " + target.getValue());
+            } catch (IOException e) {
+                if (!droneSocket.isClosed()) {
+                    erro("Erro ao receber NACK no drone " + droneId.getValue() + ": " + e.getMessage());
+                }
+            } catch (IllegalArgumentException e) {
+                erro("NACK inválido recebido pelo drone " + droneId.getValue() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private synchronized void retransmit(long lostSequence) {
+        sendBuffer.clear();
+        if (!retransmitRing.copy(lostSequence, sendBuffer)) {
+            message("Drone " + droneId.getValue() + " não tem mais a leitura " + lostSequence + " para retransmitir");
+            return;
+        }
+        try {
+            droneSocket.send(new DatagramPacket(sendBuffer.array(), sendBuffer.position(), datacenterAddress));
+            info("Drone " + droneId.getValue() + " retransmitiu a leitura " + lostSequence);
+        } catch (IOException e) {
+            erro("Falha ao retransmitir a leitura " + lostSequence + ": " + e.getMessage());
+        }
+    }
+
     private void scheduleNext() {
         long delay = getRandomDelay();
 
         scheduler.schedule(() -> {
             try {
                 collectData();
-                String data = toString();
-                infoNoLine("Drone " + droneId.getValue() + " gerou: " + data);
+                display(() -> "Drone " + droneId.getValue() + " gerou: " + this);
 
                 // Enviando para o centro de dados
-                sendMessageDataCenter(new DatagramDrone(droneId, data));
+                DatagramDrone reading = new DatagramDrone(droneId, sequence++, pressure, solarRadiation, temperature, humidity);
+                reading.setEpoch(epoch);
+                sendMessageDataCenter(reading);
             } catch (Exception e) {
                 erro("Houve um erro ao enviar dados do drone " + droneId.getValue() + ": " + e.getMessage());
             } finally {
@@ -123,23 +179,79 @@ public class Drone implements AutoCloseable, Loggable {
         }, delay, TimeUnit.MILLISECONDS);
     }
 
-    public void sendMessageDataCenter(DatagramDrone message) {
+    public synchronized void sendMessageDataCenter(DatagramDrone message) {
         if (message == null) {
             erro("Mensagem nula não pode ser enviada.");
             return;
         }
 
-        byte[] buffer = message.toBytes();
-        if (buffer.length == 0) {
+        if (batchPolicy != null && message.hasValues()) {
+            appendToBatch(message);
+            return;
+        }
+
+        byte[] buffer;
+        int length;
+        if (wireFormat == WireFormat.BINARY && message.hasValues()) {
+            sendBuffer.clear();
+            message.writeBinary(sendBuffer);
+            buffer = sendBuffer.array();
+            length = sendBuffer.position();
+            if (retransmitRing != null) {
+                retransmitRing.store(message.getSequence(), sendBuffer.duplicate().flip());
+            }
+        } else {
+            buffer = message.toBytes();
+            length = buffer.length;
+        }
+
+        if (length == 0) {
             erro("Mensagem vazia não pode ser enviada.");
             return;
         }
 
+        send(buffer, length);
+    }
+
+    private void appendToBatch(DatagramDrone message) {
+        if (batchCount == 0) {
+            batchBuffer.clear();
+            DroneBatch.begin(batchBuffer);
+        }
+        int start = batchBuffer.position();
+        message.writeBinary(batchBuffer);
+        if (retransmitRing != null) {
+            retransmitRing.store(message.getSequence(), batchBuffer.duplicate().position(start).limit(start + DroneCodec.SIZE));
+        }
+        batchCount++;
+
+        if (batchCount == batchPolicy.capacity()) {
+            flushBatch();
+        } else if (batchCount == 1 && !scheduler.isShutdown()) {
+            batchLinger = scheduler.schedule(this::flushBatch, batchPolicy.lingerMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Envia o lote atual em um único datagrama
+    public synchronized void flushBatch() {
+        if (batchLinger != null) {
+            batchLinger.cancel(false);
+            batchLinger = null;
+        }
+        if (batchCount == 0) {
+            return;
+        }
+        DroneBatch.finish(batchBuffer, 0, batchCount);
+        int count = batchCount;
+        batchCount = 0;
+        send(batchBuffer.array(), batchBuffer.position());
+        debug(() -> "Drone " + droneId.getValue() + " enviou um lote de " + count + " leituras");
+    }
+
+    private void send(byte[] buffer, int length) {
         try {
-            InetAddress address = InetAddress.getByName(datacenter.getHost());
-            DatagramPacket packet = new DatagramPacket(buffer, buffer.length, address, datacenter.getPort());
-            droneSocket.send(packet);
-            info("Mensagem enviada com sucesso para o IP Multicast: " + datacenter.getHost() + ":" + datacenter.getPort());
+            droneSocket.send(new DatagramPacket(buffer, length, datacenterAddress));
+            debug(() -> "Mensagem enviada com sucesso para o IP Multicast: " + datacenter.getHost() + ":" + datacenter.getPort());
         } catch (IOException e) {
             erro("Falha ao enviar mensagem para o balanceador: " + e.getMessage());
         }
@@ -147,6 +259,9 @@ public class Drone implements AutoCloseable, Loggable {
 
     @Override
     public void close() {
+        if (batchPolicy != null && !droneSocket.isClosed()) {
+            flushBatch();
+        }
         if (droneSocket != null && !droneSocket.isClosed()) {
             droneSocket.close();
         }
@@ -158,17 +273,12 @@ public class Drone implements AutoCloseable, Loggable {
     }
 
     public void collectData() {
-        Map<String, Range> ranges = rangesByRegion.get(this.droneId);
-
-        this.pressure = generateValue("pressure", ranges);
-        this.solarRadiation = generateValue("solarRadiation", ranges);
-        this.temperature = generateValue("temperature", ranges);
-        this.humidity = generateValue("humidity", ranges);
-    }
+        sensors.next(droneId, System.currentTimeMillis(), reading);
 
-    private double generateValue(String key, Map<String, Range> ranges) {
-        Range range = ranges.get(key);
-        return generators.get(key).apply(range.min(), range.max());
+        this.pressure = reading[SensorEngine.PRESSAO];
+        this.solarRadiation = reading[SensorEngine.RADIACAO];
+        this.temperature = reading[SensorEngine.TEMPERATURA];
+        this.humidity = reading[SensorEngine.UMIDADE];
     }
 
     @Override
@@ -182,7 +292,12 @@ public class Drone implements AutoCloseable, Loggable {
         return regionFormat.format(values);
     }
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+        // Modo sem interação para testes de carga: Drone fleet (ver FleetLoadGenerator)
+        if (args.length > 0 && args[0].equalsIgnoreCase("fleet")) {
+            FleetLoadGenerator.main(args);
+            return;
+        }
 
         Scanner scanner = new Scanner(System.in);
 
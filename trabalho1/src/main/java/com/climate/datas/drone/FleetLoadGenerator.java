@@ -0,0 +1,294 @@
+package com.climate.datas.drone;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import com.climate.datas.utils.Loggable;
+import com.climate.datas.utils.common.LatencyHistogram;
+import com.climate.datas.utils.common.NetworkConfig;
+import com.climate.datas.utils.drone.DatagramDrone;
+import com.climate.datas.utils.drone.DroneBatch;
+import com.climate.datas.utils.drone.DroneBatchPolicy;
+import com.climate.datas.utils.drone.DroneCodec;
+import com.climate.datas.utils.drone.DroneId;
+import com.climate.datas.utils.drone.SensorEngine;
+import com.climate.datas.utils.drone.SensorModel;
+
+/*
+ * Gerador de carga sem interação: simula uma frota de drones enviando leituras
+ * binárias ao DataCenter a uma taxa agregada alvo, para encontrar o ponto de
+ * saturação do DataCenter.
+ *
+ * Poucas threads de envio (cada uma com seu DatagramChannel e buffers) cuidam
+ * de toda a frota, em rodízio entre os drones simulados, e controlam o ritmo
+ * pelo relógio em vez de um agendamento por drone. Cada drone simulado tem
+ * identidade própria: o drone i é o membro i / 4 da região i % 4 (DroneId), com
+ * a sua contagem de sequência, e o DataCenter acompanha as perdas de cada um.
+ *
+ * Configuração por propriedades (padrões entre parênteses):
+ *   -Dfleet.drones (1000)  -Dfleet.rate msgs/s (10000)  -Dfleet.duration segundos (30)
+ *   -Dfleet.ramp=constant|linear|step (constant)  -Dfleet.rampSeconds (0)
+ *   -Dfleet.senders (4)  -Dfleet.host e -Dfleet.port (grupo do DataCenter em -Dnet.datacenter)
+ *   -Dnet.interface: interface de saída do multicast
+ *   -Dfleet.batch=mtu,ms (desativado): várias leituras por datagrama (DroneBatch)
+ *   -Ddrone.model e -Ddrone.seed (42): modelo e semente do SensorEngine
+ */
+public class FleetLoadGenerator implements Loggable {
+
+    // Avisado a cada leitura gerada, antes do envio; roda nas threads de envio e deve ser rápido
+    public interface ReadingListener {
+        void onReading(int drone, long sequence, long nanoTime);
+    }
+
+    private static final int REGIONS = DroneId.values().length;
+
+    private final int drones;
+    private final double targetRate;
+    private final long durationNanos;
+    private final RampProfile ramp;
+    private final long rampNanos;
+    private final int senders;
+    private final InetSocketAddress target;
+    private final DroneBatchPolicy batchPolicy;     // null: uma leitura por datagrama
+    private final NetworkInterface networkInterface; // Interface de saída do multicast (null: a padrão)
+    private volatile ReadingListener listener;
+    private final SensorModel model = SensorModel.fromProperty();
+    private final long seed = Long.getLong("drone.seed", 42);
+
+    private final long epoch = System.currentTimeMillis(); // Época da frota: um novo gerador é um reinício para o DataCenter
+    private final LongAdder sent = new LongAdder();         // Leituras enviadas
+    private final LongAdder datagrams = new LongAdder();    // Datagramas enviados
+    private final LongAdder errors = new LongAdder();
+    private final LatencyHistogram sendLatency = new LatencyHistogram();
+
+    public FleetLoadGenerator(int drones, double targetRate, long durationSeconds, RampProfile ramp, long rampSeconds,
+                              int senders, InetSocketAddress target) {
+        this(drones, targetRate, durationSeconds, ramp, rampSeconds, senders, target, null);
+    }
+
+    public FleetLoadGenerator(int drones, double targetRate, long durationSeconds, RampProfile ramp, long rampSeconds,
+                              int senders, InetSocketAddress target, DroneBatchPolicy batchPolicy) {
+        this(drones, targetRate, durationSeconds, ramp, rampSeconds, senders, target, batchPolicy, null);
+    }
+
+    public FleetLoadGenerator(int drones, double targetRate, long durationSeconds, RampProfile ramp, long rampSeconds,
+                              int senders, InetSocketAddress target, DroneBatchPolicy batchPolicy, NetworkInterface networkInterface) {
+        if (drones <= 0 || targetRate <= 0 || durationSeconds <= 0 || senders <= 0) {
+            throw new IllegalArgumentException("Drones, taxa, duração e threads de envio devem ser positivos.");
+        }
+        this.drones = drones;
+        this.targetRate = targetRate;
+        this.durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+        this.ramp = ramp;
+        this.rampNanos = TimeUnit.SECONDS.toNanos(rampSeconds);
+        this.senders = Math.min(senders, drones);   // Cada thread precisa de ao menos um drone
+        this.target = target;
+        this.batchPolicy = batchPolicy;
+        this.networkInterface = networkInterface;
+    }
+
+    public static FleetLoadGenerator fromProperties() throws IOException {
+        NetworkConfig network = NetworkConfig.fromProperties();
+        return new FleetLoadGenerator(
+                Integer.getInteger("fleet.drones", 1000),
+                Double.parseDouble(System.getProperty("fleet.rate", "10000")),
+                Long.getLong("fleet.duration", 30),
+                RampProfile.fromValue(System.getProperty("fleet.ramp", RampProfile.CONSTANT.getValue())),
+                Long.getLong("fleet.rampSeconds", 0),
+                Integer.getInteger("fleet.senders", 4),
+                new InetSocketAddress(InetAddress.getByName(System.getProperty("fleet.host", network.dataCenter().getHost())),
+                        Integer.getInteger("fleet.port", network.dataCenter().getPort())),
+                DroneBatchPolicy.fromProperty("fleet.batch"),
+                network.networkInterface());
+    }
+
+    // Índice na frota do drone que enviou a leitura (inverso de regionOf e memberOf)
+    public static int droneOf(DroneId droneId, int member) {
+        return member * REGIONS + droneId.getOrdinal();
+    }
+
+    public static DroneId regionOf(int drone) {
+        return DroneId.fromOrdinal(drone % REGIONS);
+    }
+
+    public static int memberOf(int drone) {
+        return drone / REGIONS;
+    }
+
+    public int getDrones() {
+        return drones;
+    }
+
+    public void setListener(ReadingListener listener) {
+        this.listener = listener;
+    }
+
+    public Report run() throws InterruptedException {
+        info("Gerador de carga: " + drones + " drones, alvo " + targetRate + " msgs/s (" + ramp.getValue()
+                + "), " + TimeUnit.NANOSECONDS.toSeconds(durationNanos) + " s, " + senders + " threads -> " + target
+                + (batchPolicy != null ? ", lotes de até " + batchPolicy.capacity() + " leituras" : ""));
+
+        long start = System.nanoTime();
+        CountDownLatch done = new CountDownLatch(senders);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < senders; i++) {
+            int sender = i;
+            Thread thread = new Thread(() -> {
+                try {
+                    send(sender, start);
+                } finally {
+                    done.countDown();
+                }
+            }, "fleet-sender-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+
+        // Progresso a cada segundo
+        long lastSent = 0;
+        while (!done.await(1, TimeUnit.SECONDS)) {
+            long total = sent.sum();
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("t=%ds alvo=%.0f msgs/s enviado=%d msgs/s erros=%d%n",
+                    TimeUnit.NANOSECONDS.toSeconds(elapsed), ramp.rateAt(targetRate, elapsed, rampNanos), total - lastSent, errors.sum());
+            lastSent = total;
+        }
+
+        Report report = new Report(sent.sum(), datagrams.sum(), errors.sum(), (System.nanoTime() - start) / 1e9, sendLatency);
+        info("Gerador de carga finalizado: " + report);
+        return report;
+    }
+
+    // Cada thread cuida de 1/senders da taxa e dos drones de índice sender, sender + senders, ...
+    // Só ela envia por eles, então as sequências e os motores desses drones ficam na própria thread
+    private void send(int sender, long start) {
+        // Motor próprio por drone, com semente derivada da do gerador e do índice do drone: as leituras
+        // de cada drone se repetem com a mesma semente, qualquer que seja o número de threads
+        SensorEngine[] engines = new SensorEngine[(drones - sender + senders - 1) / senders];
+        for (int i = 0; i < engines.length; i++) {
+            engines[i] = new SensorEngine(model, seed + sender + (long) i * senders);
+        }
+        int capacity = batchPolicy != null ? batchPolicy.capacity() : 1;
+        long lingerNanos = batchPolicy != null ? TimeUnit.MILLISECONDS.toNanos(batchPolicy.lingerMillis()) : 0;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(batchPolicy != null ? batchPolicy.mtu() : DroneCodec.SIZE);
+        DatagramDrone reading = new DatagramDrone();
+        reading.setEpoch(epoch);
+        ReadingListener readingListener = listener;
+        long[] sequences = new long[engines.length];    // Última sequência enviada, por drone da thread
+        int drone = sender;
+        int batched = 0;
+        long batchStart = 0;
+
+        try (DatagramChannel channel = DatagramChannel.open(StandardProtocolFamily.INET)) {
+            if (networkInterface != null) {
+                channel.setOption(StandardSocketOptions.IP_MULTICAST_IF, networkInterface);
+            }
+            long next = start;
+            while (true) {
+                long now = System.nanoTime();
+                long elapsed = now - start;
+                if (elapsed >= durationNanos) {
+                    if (batched > 0) {
+                        flush(channel, buffer, batched);
+                    }
+                    return;
+                }
+                // Lote parado além do orçamento de latência sai mesmo incompleto
+                if (batched > 0 && now - batchStart >= lingerNanos) {
+                    flush(channel, buffer, batched);
+                    batched = 0;
+                }
+                double rate = ramp.rateAt(targetRate, elapsed, rampNanos) / senders;
+                if (rate <= 0) {
+                    next = now + TimeUnit.MILLISECONDS.toNanos(1);
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                    continue;
+                }
+                if (now < next) {
+                    LockSupport.parkNanos(batched > 0 ? Math.min(next - now, batchStart + lingerNanos - now) : next - now);
+                    continue;
+                }
+                // Atrasos do parkNanos são compensados com envios seguidos, sem acumular mais de 1 s de dívida
+                next = Math.max(next, now - TimeUnit.SECONDS.toNanos(1)) + (long) (1e9 / rate);
+
+                long sequence = ++sequences[drone / senders];
+                engines[drone / senders].fill(reading, regionOf(drone), sequence, System.currentTimeMillis());
+                reading.setMember(memberOf(drone));
+                if (readingListener != null) {
+                    readingListener.onReading(drone, sequence, System.nanoTime());
+                }
+                drone += senders;
+                if (drone >= drones) {
+                    drone = sender;
+                }
+
+                if (batchPolicy == null) {
+                    buffer.clear();
+                    reading.writeBinary(buffer);
+                    send(channel, buffer, 1);
+                    continue;
+                }
+                if (batched == 0) {
+                    buffer.clear();
+                    DroneBatch.begin(buffer);
+                    batchStart = now;
+                }
+                reading.writeBinary(buffer);
+                if (++batched == capacity) {
+                    flush(channel, buffer, batched);
+                    batched = 0;
+                }
+            }
+        } catch (IOException e) {
+            erro("Erro no envio do gerador de carga: " + e.getMessage());
+        }
+    }
+
+    private void flush(DatagramChannel channel, ByteBuffer buffer, int count) {
+        DroneBatch.finish(buffer, 0, count);
+        send(channel, buffer, count);
+    }
+
+    // Envia o conteúdo até a posição atual do buffer
+    private void send(DatagramChannel channel, ByteBuffer buffer, int readings) {
+        buffer.flip();
+        long sendStart = System.nanoTime();
+        try {
+            channel.send(buffer, target);
+            sendLatency.recordSince(sendStart);
+            sent.add(readings);
+            datagrams.increment();
+        } catch (IOException e) {
+            errors.add(readings);
+        }
+    }
+
+    public record Report(long sent, long datagrams, long errors, double seconds, LatencyHistogram sendLatency) {
+        public double rate() {
+            return seconds <= 0 ? 0 : sent / seconds;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d mensagens em %d datagramas em %.1f s (%.0f msgs/s), %d erros, latência de envio: %s",
+                    sent, datagrams, seconds, rate(), errors, sendLatency);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        fromProperties().run();
+    }
+}
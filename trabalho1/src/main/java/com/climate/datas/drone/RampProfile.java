@@ -0,0 +1,43 @@
+package com.climate.datas.drone;
+
+import lombok.Getter;
+
+/*
+ * Como a taxa do gerador de carga evolui até a taxa alvo.
+ *
+ * CONSTANT: taxa alvo desde o início.
+ * LINEAR: sobe linearmente de 0 até o alvo durante o tempo de rampa.
+ * STEP: sobe em 4 degraus iguais (25%, 50%, 75%, 100%) durante o tempo de rampa.
+ */
+@Getter
+public enum RampProfile {
+    CONSTANT("constant"), LINEAR("linear"), STEP("step");
+
+    private final String value;
+
+    RampProfile(String value) {
+        this.value = value;
+    }
+
+    // Taxa no instante elapsedNanos desde o início
+    public double rateAt(double target, long elapsedNanos, long rampNanos) {
+        if (this == CONSTANT || rampNanos <= 0 || elapsedNanos >= rampNanos) {
+            return target;
+        }
+        double progress = (double) elapsedNanos / rampNanos;
+        return switch (this) {
+            case LINEAR -> target * progress;
+            case STEP -> target * (Math.floor(progress * 4) + 1) / 4;
+            default -> target;
+        };
+    }
+
+    public static RampProfile fromValue(String value) {
+        for (RampProfile profile : RampProfile.values()) {
+            if (profile.getValue().equalsIgnoreCase(value)) {
+                return profile;
+            }
+        }
+        return CONSTANT;
+    }
+}
@@ -0,0 +1,44 @@
+package com.climate.datas.drone;
+
+import java.nio.ByteBuffer;
+
+import com.climate.datas.utils.drone.DroneCodec;
+
+/*
+ * Anel com as últimas leituras enviadas pelo drone, já codificadas em binário,
+ * para atender pedidos de retransmissão (NACK) sem alocar.
+ *
+ * Cada posição guarda a sequência e os bytes da leitura; uma sequência que já
+ * foi sobrescrita por leituras mais novas não pode mais ser reenviada.
+ */
+class RetransmitRing {
+    private final long[] sequences;
+    private final byte[] records;
+    private final int capacity;
+
+    RetransmitRing(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("A capacidade do anel de retransmissão deve ser positiva.");
+        }
+        this.capacity = capacity;
+        this.sequences = new long[capacity];
+        this.records = new byte[capacity * DroneCodec.SIZE];
+    }
+
+    // Guarda a leitura que está entre position e limit do buffer (sem alterá-lo)
+    synchronized void store(long sequence, ByteBuffer record) {
+        int slot = (int) Math.floorMod(sequence, (long) capacity);
+        sequences[slot] = sequence;
+        record.duplicate().get(records, slot * DroneCodec.SIZE, DroneCodec.SIZE);
+    }
+
+    // Copia a leitura para target; false se ela já saiu do anel
+    synchronized boolean copy(long sequence, ByteBuffer target) {
+        int slot = (int) Math.floorMod(sequence, (long) capacity);
+        if (sequence <= 0 || sequences[slot] != sequence) {
+            return false;
+        }
+        target.put(records, slot * DroneCodec.SIZE, DroneCodec.SIZE);
+        return true;
+    }
+}
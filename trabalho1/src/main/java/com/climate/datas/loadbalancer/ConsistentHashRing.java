@@ -0,0 +1,180 @@
+package com.climate.datas.loadbalancer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Anel de hash consistente imutável com nós virtuais e pesos.
+ *
+ * Cada nó ocupa vnodes * peso pontos no anel, guardados em um long[] ordenado
+ * com o dono de cada ponto em um int[] paralelo; uma chave pertence ao primeiro
+ * ponto maior ou igual ao seu hash (busca binária, O(log n)). Ao adicionar ou
+ * remover um nó, só as chaves dos pontos dele mudam de dono (~1/n delas).
+ * As alterações devolvem um novo anel, então leituras concorrentes não precisam de lock.
+ */
+public final class ConsistentHashRing<T> {
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    private final Map<T, Integer> weights;          // Nós e seus pesos, na ordem de inserção
+    private final int vnodes;                       // Pontos por unidade de peso
+    private final List<T> nodes;                    // Donos indexados por owners
+    private final long[] points;                    // Pontos do anel, ordenados
+    private final int[] owners;                     // Índice em nodes do dono de cada ponto
+
+    public ConsistentHashRing(Map<T, Integer> weights, int vnodes) {
+        if (vnodes <= 0) {
+            throw new IllegalArgumentException("A quantidade de nós virtuais deve ser positiva.");
+        }
+        this.weights = Collections.unmodifiableMap(new LinkedHashMap<>(weights));
+        this.vnodes = vnodes;
+        this.nodes = List.copyOf(this.weights.keySet());
+
+        int total = 0;
+        for (int weight : this.weights.values()) {
+            if (weight <= 0) {
+                throw new IllegalArgumentException("O peso de cada nó deve ser positivo.");
+            }
+            total = Math.addExact(total, Math.multiplyExact(weight, vnodes));
+        }
+
+        long[] unsortedPoints = new long[total];
+        int[] unsortedOwners = new int[total];
+        int position = 0;
+        for (int owner = 0; owner < nodes.size(); owner++) {
+            long base = hash(nodes.get(owner).toString());
+            int count = this.weights.get(nodes.get(owner)) * vnodes;
+            for (int v = 0; v < count; v++) {
+                unsortedPoints[position] = fmix64(base + (v + 1) * GOLDEN);
+                unsortedOwners[position] = owner;
+                position++;
+            }
+        }
+
+        // Ordena os pontos levando o dono junto (construção rara, fora do caminho de consulta)
+        Integer[] order = new Integer[total];
+        for (int i = 0; i < total; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(unsortedPoints[a], unsortedPoints[b]));
+        this.points = new long[total];
+        this.owners = new int[total];
+        for (int i = 0; i < total; i++) {
+            points[i] = unsortedPoints[order[i]];
+            owners[i] = unsortedOwners[order[i]];
+        }
+    }
+
+    public static <T> ConsistentHashRing<T> of(List<T> nodes, int vnodes) {
+        Map<T, Integer> weights = new LinkedHashMap<>();
+        nodes.forEach(node -> weights.put(node, 1));
+        return new ConsistentHashRing<>(weights, vnodes);
+    }
+
+    public T get(String key) {
+        return get(hash(key));
+    }
+
+    public T get(long keyHash) {
+        if (points.length == 0) {
+            return null;
+        }
+        int index = Arrays.binarySearch(points, keyHash);
+        if (index < 0) {
+            index = -index - 1;
+            if (index == points.length) {
+                index = 0;
+            }
+        }
+        return nodes.get(owners[index]);
+    }
+
+    public ConsistentHashRing<T> with(T node, int weight) {
+        Map<T, Integer> next = new LinkedHashMap<>(weights);
+        next.put(node, weight);
+        return new ConsistentHashRing<>(next, vnodes);
+    }
+
+    public ConsistentHashRing<T> without(T node) {
+        Map<T, Integer> next = new LinkedHashMap<>(weights);
+        next.remove(node);
+        return new ConsistentHashRing<>(next, vnodes);
+    }
+
+    public List<T> getNodes() {
+        return nodes;
+    }
+
+    // Nós na ordem de inserção com seus pesos
+    public Map<T, Integer> getWeights() {
+        return weights;
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    public int getVnodes() {
+        return vnodes;
+    }
+
+    // Fração do anel que pertence a cada nó, útil para conferir o efeito dos pesos
+    public Map<T, Double> ownership() {
+        Map<T, Double> shares = new LinkedHashMap<>();
+        nodes.forEach(node -> shares.put(node, 0.0));
+        if (points.length == 1) {
+            shares.put(nodes.get(owners[0]), 1.0);
+            return shares;
+        }
+        for (int i = 0; i < points.length; i++) {
+            long previous = i == 0 ? points[points.length - 1] : points[i - 1];
+            shares.merge(nodes.get(owners[i]), unsignedToDouble(points[i] - previous) / 0x1p64, Double::sum);
+        }
+        return shares;
+    }
+
+    private static double unsignedToDouble(long value) {
+        double result = (double) (value >>> 1) * 2.0;
+        return result + (value & 1);
+    }
+
+    // Hash de 64 bits no estilo murmur: mistura os bytes UTF-8 em blocos de 8 e finaliza com fmix64
+    public static long hash(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        long h = bytes.length * GOLDEN;
+        int i = 0;
+        for (; i + 8 <= bytes.length; i += 8) {
+            long k = 0;
+            for (int b = 0; b < 8; b++) {
+                k |= (bytes[i + b] & 0xFFL) << (8 * b);
+            }
+            h = Long.rotateLeft(h ^ fmix64(k), 27) * 5 + 0x52DCE729;
+        }
+        long tail = 0;
+        for (int b = 0; i < bytes.length; i++, b++) {
+            tail |= (bytes[i] & 0xFFL) << (8 * b);
+        }
+        return fmix64(h ^ fmix64(tail));
+    }
+
+    // Finalizador de 64 bits do MurmurHash3
+    public static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xFF51AFD7ED558CCDL;
+        k ^= k >>> 33;
+        k *= 0xC4CEB93FE53A1A34L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    @Override
+    public String toString() {
+        List<String> parts = new ArrayList<>();
+        weights.forEach((node, weight) -> parts.add(node + "x" + weight));
+        return "ConsistentHashRing" + parts + "[vnodes=" + vnodes + ", pontos=" + points.length + "]";
+    }
+}
@@ -0,0 +1,46 @@
+package com.climate.datas.loadbalancer;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.climate.datas.utils.ServerInfo;
+
+/*
+ * Escolha do grupo multicast de cada usuário, sem rede: anel de hash
+ * consistente (o mesmo usuário sempre no mesmo grupo) ou round-robin.
+ *
+ * O anel é imutável e trocado inteiro a cada alteração, então as escolhas
+ * não usam lock; só adicionar e remover grupos são sincronizados.
+ */
+public class GroupSelector {
+    private volatile ConsistentHashRing<ServerInfo> ring; // Anel de hash consistente dos grupos
+    private final AtomicInteger index = new AtomicInteger(0);
+
+    public GroupSelector(List<ServerInfo> groups, int vnodes) {
+        this.ring = ConsistentHashRing.of(groups, vnodes);
+    }
+
+    // Só os usuários do arco do grupo adicionado/removido mudam de grupo
+    public ServerInfo consistentHash(String userId) {
+        return ring.get(userId);
+    }
+
+    public ServerInfo roundRobin() {
+        List<ServerInfo> groups = ring.getNodes(); // Lista imutável: não muda no meio da escolha
+        int i = Math.floorMod(index.getAndIncrement(), groups.size());
+        return groups.get(i);
+    }
+
+    // Adiciona (ou altera o peso de) um grupo; peso 2 recebe o dobro de usuários
+    public synchronized void addGroup(ServerInfo group, int weight) {
+        ring = ring.with(group, weight);
+    }
+
+    public synchronized void removeGroup(ServerInfo group) {
+        ring = ring.without(group);
+    }
+
+    public List<ServerInfo> getGroups() {
+        return ring.getNodes();
+    }
+}
@@ -7,13 +7,18 @@ import java.net.Socket;
 import java.time.Duration;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import com.climate.datas.utils.Loggable;
 import com.climate.datas.utils.ServerInfo;
+import com.climate.datas.utils.JsonSerializable;
 import com.climate.datas.utils.common.Communicator;
+import com.climate.datas.utils.common.IoMode;
+import com.climate.datas.utils.common.NetworkConfig;
+import com.climate.datas.utils.common.NioEventLoop;
+import com.climate.datas.utils.common.NioMessageHandler;
 import com.climate.datas.utils.user.UserResponse;
 
 public class LoadBalancer implements AutoCloseable, Loggable {
@@ -23,22 +28,44 @@ public class LoadBalancer implements AutoCloseable, Loggable {
     private volatile boolean running = false;       // Flag indicadora de execução
     private final ExecutorService threadPool;       // Pool de threads para tratar as conexões
     private final List<ServerInfo> multiCastIp;     // Info dos servidores
-    private final AtomicInteger index = new AtomicInteger(0);
+    private final GroupSelector groupSelector;      // Escolha do grupo (hash consistente ou round-robin)
+    private final IoMode ioMode;                    // Implementação de rede (bloqueante ou selector)
+    private NioEventLoop eventLoop;                 // Laço de eventos (modo SELECTOR)
 
     public LoadBalancer() throws IOException {
-        this.port = 50000;
-        this.host = "10.10.71.58";
+        this(IoMode.fromProperty());
+    }
+
+    public LoadBalancer(IoMode ioMode) throws IOException {
+        this(ioMode, NetworkConfig.fromProperties());
+    }
+
+    // Escuta em network.host():network.balancerPort() e distribui os usuários entre os grupos de network.groups()
+    public LoadBalancer(IoMode ioMode, NetworkConfig network) throws IOException {
+        this.ioMode = ioMode;
+        this.port = network.balancerPort();
+        this.host = network.host();
 
         threadPool = Executors.newVirtualThreadPerTaskExecutor();
-        multiCastIp = List.of(new ServerInfo("230.0.0.2", 50001), new ServerInfo("230.0.0.3", 50002));
+        multiCastIp = new CopyOnWriteArrayList<>(network.groups());
+        groupSelector = new GroupSelector(multiCastIp, Integer.getInteger("loadbalancer.vnodes", 160));
         initialize();
     }
 
     public void initialize() throws IOException {
         try {
-            this.balancerSocket = new ServerSocket(port, 50, InetAddress.getByName(host));
+            if (ioMode == IoMode.SELECTOR) {
+                this.eventLoop = new NioEventLoop("LoadBalancer-loop");
+                // Respostas são curtas: o laço responde direto, sem repassar para o pool de threads
+                eventLoop.bind(host, port, 50, (handler, frame) -> {
+                    handleFrame(handler, frame);
+                    return true;
+                });
+            } else {
+                this.balancerSocket = new ServerSocket(port, 50, InetAddress.getByName(host));
+            }
             running = true;
-            info("LoadBalancer rodando em " + host + ":" + port);
+            info("LoadBalancer rodando em " + host + ":" + port + " (" + ioMode.getValue() + ")");
         } catch (IOException e) {
             erro("Erro ao iniciar o LoadBalancer: " + e.getMessage());
             throw new IOException("Não foi possível iniciar o LoadBalancer na porta " + port + " em " + host, e);
@@ -46,6 +73,17 @@ public class LoadBalancer implements AutoCloseable, Loggable {
     }
 
     public void start() throws IllegalStateException {
+        if (!running) {
+            throw new IllegalStateException("LoadBalancer não foi inicializado. Chame initialize() primeiro.");
+        }
+        if (ioMode == IoMode.SELECTOR) {
+            try {
+                eventLoop.run();
+            } finally {
+                close();
+            }
+            return;
+        }
         try {
             while (running) {
                 Socket userSocket = balancerSocket.accept();
@@ -81,36 +119,70 @@ public class LoadBalancer implements AutoCloseable, Loggable {
         }
     }
 
+    // Modo SELECTOR: cada frame é um UserResponse e a resposta sai pelo mesmo canal
+    private void handleFrame(NioMessageHandler user, String frame) {
+        UserResponse userResponse = JsonSerializable.fromJson(frame, UserResponse.class);
+
+        if (userResponse == null || userResponse.getResponse() == null) {
+            info("Usuário enviou mensagem inválida.");
+            return;
+        }
+
+        ServerInfo server = chooseServer(userResponse);
+        if (server != null) {
+            user.sendJsonMessage(server);
+            info("Usuário recebeu o grupo de servidores: " + server);
+        } else {
+            info("Resposta do usuário inválida: " + userResponse.getResponse().getValue());
+        }
+    }
+
     public void sendServer(UserResponse userResponse, Communicator user) {
-        switch (userResponse.getResponse().getValue()) {
-            case 0 -> { // Hashing
-                ServerInfo server = chooseServerConsistentHash(String.valueOf(userResponse.getId()));
-                user.sendJsonMessage(server);
-                info("Usuário recebeu o grupo de servidores: " + server);
-            }
-            case 1 -> { // Round-Robin
-                ServerInfo server = chooseServerRR();
-                user.sendJsonMessage(server);
-                info("Usuário recebeu o grupo de servidores: " + server);
-            }
+        ServerInfo server = chooseServer(userResponse);
+        if (server != null) {
+            user.sendJsonMessage(server);
+            info("Usuário recebeu o grupo de servidores: " + server);
         }
     }
 
+    public ServerInfo chooseServer(UserResponse userResponse) {
+        return switch (userResponse.getResponse().getValue()) {
+            case 0 -> chooseServerConsistentHash(String.valueOf(userResponse.getId())); // Hashing
+            case 1 -> chooseServerRR(); // Round-Robin
+            default -> null;
+        };
+    }
+
     public ServerInfo chooseServerConsistentHash(String userId) {
-        int hash = Math.abs(userId.hashCode());
-        int serverIndex = hash % multiCastIp.size();
-        return multiCastIp.get(serverIndex);
+        return groupSelector.consistentHash(userId);
+    }
+
+    // Adiciona (ou altera o peso de) um grupo multicast; peso 2 recebe o dobro de usuários
+    public synchronized void addGroup(ServerInfo group, int weight) {
+        groupSelector.addGroup(group, weight);
+        if (!multiCastIp.contains(group)) {
+            multiCastIp.add(group);
+        }
+        info("Grupo " + group + " adicionado ao LoadBalancer com peso " + weight);
+    }
+
+    public synchronized void removeGroup(ServerInfo group) {
+        groupSelector.removeGroup(group);
+        multiCastIp.remove(group);
+        info("Grupo " + group + " removido do LoadBalancer");
     }
 
     public ServerInfo chooseServerRR() {
         // Distribuição por Round-Robin
-        int i = Math.abs(index.getAndIncrement() % multiCastIp.size());
-        return multiCastIp.get(i);
+        return groupSelector.roundRobin();
     }
 
     @Override
     public void close() {
         running = false;
+        if (eventLoop != null) {
+            eventLoop.close();
+        }
         try {
             if (balancerSocket != null && !balancerSocket.isClosed()) {
                 balancerSocket.close();
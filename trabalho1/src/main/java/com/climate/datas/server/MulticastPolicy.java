@@ -0,0 +1,35 @@
+package com.climate.datas.server;
+
+/*
+ * Agrupamento das leituras enviadas pelo Server ao grupo multicast.
+ *
+ * Cada datagrama leva quantas leituras couberem em mtu bytes; um lote parcial
+ * é enviado quando a primeira leitura dele espera lingerMillis (0 envia na hora).
+ * Pode ser configurado com a propriedade -Dserver.multicast=mtu,milissegundos (ex.: 1400,2).
+ */
+public record MulticastPolicy(int mtu, long lingerMillis) {
+    public static final MulticastPolicy DEFAULT = new MulticastPolicy(1400, 2);
+
+    public MulticastPolicy {
+        if (mtu < 64 || mtu > 65507) {
+            throw new IllegalArgumentException("MTU do multicast deve estar entre 64 e 65507 bytes.");
+        }
+        if (lingerMillis < 0) {
+            throw new IllegalArgumentException("Tempo de espera do multicast não pode ser negativo.");
+        }
+    }
+
+    public static MulticastPolicy fromProperty() {
+        String value = System.getProperty("server.multicast");
+        if (value == null || value.isBlank()) {
+            return DEFAULT;
+        }
+        String[] parts = value.split(",");
+        try {
+            return new MulticastPolicy(Integer.parseInt(parts[0].trim()),
+                    parts.length > 1 ? Long.parseLong(parts[1].trim()) : DEFAULT.lingerMillis());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido para server.multicast: " + value, e);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.climate.datas.server;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.climate.datas.utils.Loggable;
+import com.climate.datas.utils.common.HopLatency;
+import com.climate.datas.utils.drone.DatagramDrone;
+import com.climate.datas.utils.drone.DroneBatch;
+import com.climate.datas.utils.drone.DroneCodec;
+
+/*
+ * Envio das leituras de um Server para o seu grupo multicast.
+ *
+ * Um único DatagramChannel e o endereço do grupo são criados uma vez e
+ * reaproveitados. As leituras são acumuladas em um lote (DroneBatch) do
+ * tamanho da MTU e enviadas em um só datagrama quando o lote enche ou quando
+ * a primeira leitura dele espera lingerMillis.
+ */
+public class MulticastSender implements AutoCloseable, Loggable {
+    private final String name;
+    private final InetSocketAddress group;          // Endereço do grupo resolvido uma única vez
+    private final DatagramChannel channel;
+    private final MulticastPolicy policy;
+    private final int capacity;                     // Leituras por datagrama
+    private final ByteBuffer buffer;                // Lote em montagem, protegido por this
+    private int count = 0;                          // Leituras no lote atual
+    private final HopLatency latency;               // Entrada no lote -> saída do datagrama (null: desativado)
+    private final long[] enqueuedAt;                // nanoTime de entrada de cada leitura do lote atual
+    private ScheduledFuture<?> lingerTask;          // Envio por tempo do lote atual
+    private boolean closed = false;
+
+    private final LongAdder datagrams = new LongAdder();
+    private final LongAdder readings = new LongAdder();
+
+    // Thread única (daemon) compartilhada pelos senders para o envio por tempo
+    private static final ScheduledExecutorService LINGER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "multicast-linger");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public MulticastSender(String name, String ipMulticast, int port, MulticastPolicy policy) throws IOException {
+        this(name, ipMulticast, port, policy, null);
+    }
+
+    // networkInterface: interface de saída do multicast (null: a padrão do sistema)
+    public MulticastSender(String name, String ipMulticast, int port, MulticastPolicy policy, NetworkInterface networkInterface) throws IOException {
+        this(name, ipMulticast, port, policy, networkInterface, null);
+    }
+
+    public MulticastSender(String name, String ipMulticast, int port, MulticastPolicy policy, NetworkInterface networkInterface,
+                           HopLatency latency) throws IOException {
+        this.name = name;
+        this.latency = latency;
+        this.policy = policy;
+        this.capacity = DroneBatch.capacity(policy.mtu());
+        if (capacity == 0) {
+            throw new IllegalArgumentException("MTU de " + policy.mtu() + " bytes não comporta nenhuma leitura.");
+        }
+        this.group = new InetSocketAddress(InetAddress.getByName(ipMulticast), port);
+        this.channel = DatagramChannel.open(StandardProtocolFamily.INET);
+        if (networkInterface != null) {
+            channel.setOption(StandardSocketOptions.IP_MULTICAST_IF, networkInterface);
+        }
+        this.buffer = ByteBuffer.allocateDirect(DroneBatch.HEADER_SIZE + capacity * DroneCodec.SIZE);
+        this.enqueuedAt = new long[capacity];
+        DroneBatch.begin(buffer);
+    }
+
+    public synchronized void send(DatagramDrone reading) {
+        if (closed) {
+            return;
+        }
+        reading.writeBinary(buffer);
+        enqueuedAt[count] = System.nanoTime();
+        count++;
+        readings.increment();
+
+        if (count == capacity || policy.lingerMillis() == 0) {
+            flush();
+        } else if (count == 1) {
+            lingerTask = LINGER.schedule(this::flush, policy.lingerMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public synchronized void flush() {
+        if (lingerTask != null) {
+            lingerTask.cancel(false);
+            lingerTask = null;
+        }
+        if (count == 0) {
+            return;
+        }
+        try {
+            DroneBatch.finish(buffer, 0, count);
+            buffer.flip();
+            channel.send(buffer, group);
+            datagrams.increment();
+            if (latency != null) {
+                long now = System.nanoTime();
+                for (int i = 0; i < count; i++) {
+                    latency.record(now - enqueuedAt[i]);
+                }
+            }
+            int sent = count;
+            debug(() -> name + " enviou um lote multicast de " + sent + " leituras para " + group);
+        } catch (IOException e) {
+            erro("Erro ao enviar mensagem para o grupo MultiCast: " + e.getMessage());
+        } finally {
+            count = 0;
+            buffer.clear();
+            DroneBatch.begin(buffer);
+        }
+    }
+
+    public long getDatagramsSent() {
+        return datagrams.sum();
+    }
+
+    public long getReadingsSent() {
+        return readings.sum();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        flush();
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            erro("Erro ao fechar o canal multicast do " + name + ": " + e.getMessage());
+        }
+        info(name + " enviou " + getReadingsSent() + " leituras em " + getDatagramsSent() + " datagramas multicast");
+    }
+}
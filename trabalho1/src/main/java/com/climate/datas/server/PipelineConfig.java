@@ -0,0 +1,36 @@
+package com.climate.datas.server;
+
+/*
+ * Configuração do pipeline do Server: capacidade de cada fila e quantidade de
+ * threads dos estágios de decodificação, gravação e envio aos usuários.
+ *
+ * Com uma thread por estágio a ordem de chegada é preservada; mais threads
+ * aumentam a vazão, mas leituras de um mesmo drone podem ser reordenadas.
+ * Pode ser configurado com -Dserver.pipeline=fila,decode,store,fanout (ex.: 1024,1,1,1).
+ */
+public record PipelineConfig(int queueCapacity, int decodeWorkers, int storeWorkers, int fanoutWorkers) {
+    public static final PipelineConfig DEFAULT = new PipelineConfig(1024, 1, 1, 1);
+
+    public PipelineConfig {
+        if (queueCapacity <= 0 || decodeWorkers <= 0 || storeWorkers <= 0 || fanoutWorkers <= 0) {
+            throw new IllegalArgumentException("Capacidade das filas e quantidade de threads devem ser positivas.");
+        }
+    }
+
+    public static PipelineConfig fromProperty() {
+        String value = System.getProperty("server.pipeline");
+        if (value == null || value.isBlank()) {
+            return DEFAULT;
+        }
+        String[] parts = value.split(",");
+        try {
+            return new PipelineConfig(
+                    Integer.parseInt(parts[0].trim()),
+                    parts.length > 1 ? Integer.parseInt(parts[1].trim()) : DEFAULT.decodeWorkers(),
+                    parts.length > 2 ? Integer.parseInt(parts[2].trim()) : DEFAULT.storeWorkers(),
+                    parts.length > 3 ? Integer.parseInt(parts[3].trim()) : DEFAULT.fanoutWorkers());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido para server.pipeline: " + value, e);
+        }
+    }
+}
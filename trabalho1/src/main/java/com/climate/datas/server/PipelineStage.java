@@ -0,0 +1,167 @@
+package com.climate.datas.server;
+
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import com.climate.datas.utils.Loggable;
+import lombok.Getter;
+
+/*
+ * Um estágio do pipeline: fila limitada consumida por um executor próprio.
+ *
+ * submit() bloqueia enquanto a fila estiver cheia, então um estágio lento
+ * segura o anterior até chegar na thread que lê a conexão (backpressure).
+ * Quem não pode bloquear (o laço do Selector) usa offer() e whenSpace(), que
+ * avisa quando a fila voltar a ter no máximo metade da capacidade ocupada.
+ */
+public class PipelineStage<T> implements AutoCloseable, Loggable {
+    @Getter
+    private final String name;
+    private final BlockingQueue<T> queue;
+    private final Consumer<T> handler;
+    private final ExecutorService executor;
+    private final int resumeDepth;                         // Profundidade em que os ouvintes de whenSpace() são avisados
+    private final Queue<Runnable> spaceListeners = new ConcurrentLinkedQueue<>();
+    private volatile boolean closing = false;
+
+    private final LongAdder processed = new LongAdder();   // Itens tratados
+    private final LongAdder blocked = new LongAdder();     // Vezes em que submit() encontrou a fila cheia
+    private final LongAdder failures = new LongAdder();    // Itens que lançaram exceção no handler
+    private final AtomicInteger maxDepth = new AtomicInteger();
+
+    public PipelineStage(String name, int capacity, int workers, Consumer<T> handler) {
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.handler = handler;
+        this.resumeDepth = capacity / 2;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::work);
+        }
+    }
+
+    public void submit(T item) throws InterruptedException {
+        if (closing) {
+            throw new IllegalStateException("Estágio " + name + " encerrado.");
+        }
+        if (!queue.offer(item)) {
+            blocked.increment();
+            queue.put(item);
+        }
+        maxDepth.accumulateAndGet(queue.size(), Math::max);
+    }
+
+    // Não bloqueante: false quando a fila está cheia
+    public boolean offer(T item) {
+        if (closing) {
+            throw new IllegalStateException("Estágio " + name + " encerrado.");
+        }
+        if (!queue.offer(item)) {
+            blocked.increment();
+            return false;
+        }
+        maxDepth.accumulateAndGet(queue.size(), Math::max);
+        return true;
+    }
+
+    // Executa a ação uma única vez, quando a fila baixar até metade da capacidade
+    public void whenSpace(Runnable action) {
+        spaceListeners.add(action);
+        // A fila pode ter esvaziado entre o offer() recusado e o registro
+        if (queue.size() <= resumeDepth || closing) {
+            notifySpace();
+        }
+    }
+
+    private void notifySpace() {
+        Runnable action;
+        while ((action = spaceListeners.poll()) != null) {
+            action.run();
+        }
+    }
+
+    private void work() {
+        try {
+            while (!closing || !queue.isEmpty()) {
+                T item = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (item == null) {
+                    continue;
+                }
+                if (!spaceListeners.isEmpty() && queue.size() <= resumeDepth) {
+                    notifySpace();
+                }
+                try {
+                    handler.accept(item);
+                } catch (Exception e) {
+                    failures.increment();
+                    erro("Erro no estágio " + name + ": " + e.getMessage());
+                }
+                processed.increment();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getDepth() {
+        return queue.size();
+    }
+
+    public int getMaxDepth() {
+        return maxDepth.get();
+    }
+
+    public int getCapacity() {
+        return queue.size() + queue.remainingCapacity();
+    }
+
+    public long getProcessed() {
+        return processed.sum();
+    }
+
+    public long getBlocked() {
+        return blocked.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    // Para de aceitar itens e espera as threads esvaziarem a fila
+    @Override
+    public void close() {
+        if (closing) {
+            return;
+        }
+        closing = true;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                erro("Estágio " + name + " encerrado com " + queue.size() + " itens pendentes.");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name + "[fila=" + getDepth() + "/" + getCapacity() + ", máx=" + getMaxDepth()
+                + ", processados=" + getProcessed() + ", bloqueios=" + getBlocked() + ", falhas=" + getFailures() + "]";
+    }
+}
@@ -1,24 +1,31 @@
 package com.climate.datas.server;
 
-import static com.climate.datas.utils.DataConverter.convertToStandardFormat;
-
 import java.io.IOException;
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
 import java.net.InetAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import com.climate.datas.database.DataBase;
+import com.climate.datas.database.FsyncPolicy;
+import com.climate.datas.database.RetentionPolicy;
+import com.climate.datas.database.WriteAheadLog;
 import com.climate.datas.utils.Loggable;
+import com.climate.datas.utils.ServerInfo;
 import com.climate.datas.utils.common.Communicator;
-import com.climate.datas.utils.drone.DatagramDrone;
+import com.climate.datas.utils.common.IoMode;
+import com.climate.datas.utils.common.NetworkConfig;
+import com.climate.datas.utils.common.RoleMetrics;
+import com.climate.datas.utils.common.NioEventLoop;
+import com.climate.datas.utils.common.NioMessageHandler;
 
 public class Server implements AutoCloseable, Loggable {
     private final String name;                      // Nome do servidor
@@ -29,22 +36,56 @@ public class Server implements AutoCloseable, Loggable {
     private volatile boolean running = false;       // Flag indicadora de execução
     private final ExecutorService threadPool;       // Pool de threads para tratar as conexões
     private final DataBase database;                // Referência ao banco de dados
+    private final IoMode ioMode;                    // Implementação de rede (bloqueante ou selector)
+    private NioEventLoop eventLoop;                 // Laço de eventos (modo SELECTOR)
+    private final MulticastSender multicastSender;  // Envio em lotes para o grupo multicast
+    private final ServerPipeline pipeline;          // Estágios decode -> store -> fanout
+    private final RoleMetrics metrics;              // Latências publicadas no JMX (store, multicast)
 
     public Server(int port, String ipMulticast, DataBase database) throws IOException {
-        this.port = port;
-        this.ipMulticast = ipMulticast;
-        this.host ="10.10.71.58";
+        this(port, ipMulticast, database, IoMode.fromProperty());
+    }
+
+    public Server(int port, String ipMulticast, DataBase database, IoMode ioMode) throws IOException {
+        this(new ServerInfo(ipMulticast, port), database, ioMode, NetworkConfig.fromProperties());
+    }
+
+    // Escuta em network.host() na porta do grupo e publica as leituras no grupo, pela interface configurada
+    public Server(ServerInfo group, DataBase database, IoMode ioMode, NetworkConfig network) throws IOException {
+        this.ioMode = ioMode;
+        this.port = group.getPort();
+        this.ipMulticast = group.getHost();
+        this.host = network.host();
         this.name = "Server-" + port; // Nome do servidor baseado na porta
         this.threadPool = Executors.newVirtualThreadPerTaskExecutor();
         this.database = database;
+        this.metrics = new RoleMetrics("Server", name);
+        this.multicastSender = new MulticastSender(name, ipMulticast, port, MulticastPolicy.fromProperty(), network.networkInterface(),
+                metrics.hop("multicast"));
+        this.pipeline = new ServerPipeline(name, database, multicastSender, PipelineConfig.fromProperty(), metrics.hop("store"));
         initialize();
     }
 
     public void initialize() throws IOException {
         try {
-            this.serverSocket = new ServerSocket(port, 50, InetAddress.getByName(host));
+            if (ioMode == IoMode.SELECTOR) {
+                this.eventLoop = new NioEventLoop(name + "-loop");
+                eventLoop.bind(host, port, 50, new NioEventLoop.FrameListener() {
+                    @Override
+                    public boolean onFrame(NioMessageHandler handler, String frame) {
+                        return handleFrame(handler, frame);
+                    }
+
+                    @Override
+                    public void onOpen(NioMessageHandler handler) {
+                        info(name + " aceitou uma conexão (selector)");
+                    }
+                });
+            } else {
+                this.serverSocket = new ServerSocket(port, 50, InetAddress.getByName(host));
+            }
             running = true;
-            info(name + " rodando em " + host + ":" + port);
+            info(name + " rodando em " + host + ":" + port + " (" + ioMode.getValue() + ")");
         } catch (IOException e) {
             erro("Erro ao iniciar o Servidor: " + e.getMessage());
             throw new IOException("Não foi possível iniciar o Servidor na porta " + port + " em " + host, e);
@@ -55,6 +96,15 @@ public class Server implements AutoCloseable, Loggable {
         if (!running) {
             throw new IllegalStateException("Servidor não foi inicializado. Chame initialize() primeiro.");
         }
+        if (ioMode == IoMode.SELECTOR) {
+            // O laço de eventos atende todas as conexões na thread que chamou start()
+            try {
+                eventLoop.run();
+            } finally {
+                close();
+            }
+            return;
+        }
         try {
             while (running) {
                 Socket loaderSocket = serverSocket.accept();
@@ -72,48 +122,53 @@ public class Server implements AutoCloseable, Loggable {
     private void handleConnection(Socket DataCenter) {
         try (Communicator communicatorSocket = new Communicator(DataCenter, name)) {
             while (communicatorSocket.isConnected() && running) {
-                DatagramDrone data = communicatorSocket.receiveJsonMessage(DatagramDrone.class);
+                String frame = communicatorSocket.receiveTextMessage();
 
-                if (data == null) {
-                    erro("Dados recebidos são nulos — conexão provavelmente encerrada");
+                if (frame == null) {
+                    // Fim do fluxo ou falha de leitura (conexão reiniciada): a conexão não volta mais
+                    erro("Dados recebidos são nulos — conexão encerrada ou falha de leitura");
                     break;
                 }
 
-                data.setData(convertToStandardFormat(data.getData()));
-
-                // Encaminha os dados para o banco de dados
-                database.saveData(data.getDroneId().getValue(), data.getData());
-
-                info(name + " Mensagem recebida e salva no banco de dados: " + data.getData());
-
-                // Encaminha os dados para o grupo multicast
-                sendMulticastMessage(data);
+                // Com o pipeline cheio esta thread para de ler o socket até haver espaço
+                pipeline.submit(frame);
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
             erro("DataCenter desconectado ou erro ao processar dados: " + e.getMessage());
         }
     }
 
-    private void sendMulticastMessage(DatagramDrone message) {
+    // Modo SELECTOR: cada frame recebido é um DatagramDrone em JSON. Roda na thread do laço e nunca bloqueia:
+    // com o pipeline cheio só esta conexão deixa de ser lida (backpressure), até o estágio de decode esvaziar
+    private boolean handleFrame(NioMessageHandler handler, String frame) {
         try {
-            // Socket UDP para comunicação o usuários
-            DatagramSocket socketGrupo = new DatagramSocket();
-            InetAddress group = InetAddress.getByName(ipMulticast);
-            byte[] buffer = message.toBytes();
-            DatagramPacket packet = new DatagramPacket(buffer, buffer.length, group, port);
-            socketGrupo.send(packet);
+            if (pipeline.offer(frame)) {
+                return true;
+            }
+            pipeline.whenSpace(handler::resumeReading);
+            return false;
+        } catch (Exception e) {
+            erro("Erro ao processar dados recebidos do DataCenter: " + e.getMessage());
+            return true;
+        }
+    }
 
-            info("Mensagem multicast enviada para o grupo " + ipMulticast);
+    public ServerPipeline getPipeline() {
+        return pipeline;
+    }
 
-            socketGrupo.close();
-        } catch (IOException e) {
-            erro("Erro ao enviar mensagem para o grupo MultiCast: " + e.getMessage());
-        }
+    public RoleMetrics getMetrics() {
+        return metrics;
     }
 
     @Override
     public void close() {
         running = false;
+        if (eventLoop != null) {
+            eventLoop.close();
+        }
         try {
             if (serverSocket != null && !serverSocket.isClosed()) {
                 serverSocket.close();
@@ -122,27 +177,36 @@ public class Server implements AutoCloseable, Loggable {
             erro("Erro ao tentar fechar o socket do " + name + ": " + e.getMessage());
         }
         threadPool.shutdownNow();
+        pipeline.close();
+        multicastSender.close();
+        metrics.close();
     }
 
     public static void main(String[] args) {
-        DataBase dataBase = new DataBase();
-        ScheduledExecutorService executor = Executors.newScheduledThreadPool(2);
-
-        try (
-                executor;
-                Server server1 = new Server(50001, "230.0.0.2", dataBase);
-                Server server2 = new Server(50002, "230.0.0.3", dataBase)
-        ) {
-            // Dando start nos servidores
-            executor.execute(server1::start);
-            executor.execute(server2::start);
+        DataBase dataBase;
+        try {
+            dataBase = createDataBase();
+        } catch (IOException e) {
+            System.err.println("Erro ao abrir o WAL do banco de dados: " + e.getMessage());
+            return;
+        }
+        NetworkConfig network = NetworkConfig.fromProperties();
+        List<Server> servers = new ArrayList<>();
+        ScheduledExecutorService executor = Executors.newScheduledThreadPool(network.groups().size());
+
+        try (executor) {
+            // Um servidor por grupo multicast configurado (-Dnet.groups)
+            for (ServerInfo group : network.groups()) {
+                Server server = new Server(group, dataBase, IoMode.fromProperty(), network);
+                servers.add(server);
+                executor.execute(server::start);
+            }
 
             System.out.println("Servidores iniciados...");
 
             executor.schedule(() -> {
                 System.out.println("Encerrando servidores...");
-                server2.close();
-                server1.close();
+                servers.reversed().forEach(Server::close);
 
             }, 180, TimeUnit.SECONDS);
 
@@ -162,10 +226,29 @@ public class Server implements AutoCloseable, Loggable {
         } catch (Exception e) {
             System.err.println("Erro ao iniciar os servidores: " + e.getMessage());
         } finally {
+            servers.forEach(Server::close);
             System.out.println("Servidores finalizado.");
         }
 
         // Imprime todos os dados armazenados no banco de dados
         dataBase.printAllData();
+        dataBase.close();
+    }
+
+    // Com -Ddatabase.wal=<diretório> as leituras também são gravadas em disco e recuperadas na próxima execução;
+    // -Ddatabase.wal.segments limita quantos segmentos ficam no disco (0: sem limite)
+    // A retenção (-Ddatabase.retention) vale para todos os drones
+    private static DataBase createDataBase() throws IOException {
+        String walDirectory = System.getProperty("database.wal");
+        RetentionPolicy retention = RetentionPolicy.fromProperty();
+        if (walDirectory == null || walDirectory.isBlank()) {
+            DataBase dataBase = new DataBase();
+            dataBase.setRetention(retention);
+            return dataBase;
+        }
+        // A retenção já vale durante a releitura do WAL
+        WriteAheadLog wal = WriteAheadLog.open(Path.of(walDirectory), FsyncPolicy.fromProperty());
+        wal.setMaxSegments(Integer.getInteger("database.wal.segments", 0));
+        return new DataBase(wal, retention);
     }
 }
@@ -0,0 +1,147 @@
+package com.climate.datas.server;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.climate.datas.database.DataBase;
+import com.climate.datas.utils.JsonSerializable;
+import com.climate.datas.utils.Loggable;
+import com.climate.datas.utils.RegionParser;
+import com.climate.datas.utils.common.HopLatency;
+import com.climate.datas.utils.drone.DatagramDrone;
+import com.climate.datas.utils.drone.DroneCodec;
+import com.climate.datas.utils.drone.RegionFormat;
+import com.climate.datas.utils.jfr.ServerStageEvent;
+
+/*
+ * Pipeline de processamento das leituras recebidas pelo Server:
+ *
+ *   conexão -> decode (JSON + formato da região) -> store (DataBase) -> fanout (log + multicast)
+ *
+ * Cada estágio tem sua fila limitada e suas threads; a thread que lê a conexão
+ * só entrega o frame ao primeiro estágio e volta a ler. Quando as filas enchem,
+ * submit() bloqueia e o Server deixa de ler o socket, empurrando a pressão de
+ * volta para o DataCenter pelo próprio TCP. No modo SELECTOR a thread do laço
+ * não pode bloquear: usa offer() e suspende a leitura da conexão até whenSpace().
+ */
+public class ServerPipeline implements AutoCloseable, Loggable {
+    private final String name;
+    private final DataBase database;
+    private final MulticastSender multicastSender;
+    private final HopLatency storeLatency;          // Gravação de cada leitura no DataBase
+    private final PipelineStage<String> decode;
+    private final PipelineStage<DatagramDrone> store;
+    private final PipelineStage<DatagramDrone> fanout;
+    private boolean closed = false;
+
+    // O RegionParser não é thread-safe: um por thread do estágio de decodificação
+    private final ThreadLocal<RegionParser> parsers = ThreadLocal.withInitial(RegionParser::new);
+
+    public ServerPipeline(String name, DataBase database, MulticastSender multicastSender, PipelineConfig config, HopLatency storeLatency) {
+        this.name = name;
+        this.storeLatency = storeLatency;
+        this.database = database;
+        this.multicastSender = multicastSender;
+        // Criados do fim para o começo: cada estágio entrega ao seguinte
+        this.fanout = new PipelineStage<>(name + "-fanout", config.queueCapacity(), config.fanoutWorkers(), this::fanOut);
+        this.store = new PipelineStage<>(name + "-store", config.queueCapacity(), config.storeWorkers(), this::store);
+        this.decode = new PipelineStage<>(name + "-decode", config.queueCapacity(), config.decodeWorkers(), this::decode);
+    }
+
+    // Chamado pela thread da conexão; bloqueia enquanto o pipeline estiver cheio
+    public void submit(String frame) throws InterruptedException {
+        decode.submit(frame);
+    }
+
+    // Não bloqueante: false quando o primeiro estágio está cheio
+    public boolean offer(String frame) {
+        return decode.offer(frame);
+    }
+
+    public void whenSpace(Runnable action) {
+        decode.whenSpace(action);
+    }
+
+    private void decode(String frame) {
+        ServerStageEvent event = new ServerStageEvent();
+        event.begin();
+        DatagramDrone data;
+        try {
+            data = JsonSerializable.objectMapper.readValue(frame, DatagramDrone.class);
+        } catch (IOException e) {
+            erro(name + " recebeu uma mensagem inválida do DataCenter: " + e.getMessage());
+            return;
+        }
+        if (data == null) {
+            return;
+        }
+
+        // Leituras em JSON chegam só com o texto da região: os valores são extraídos uma única vez
+        if (!data.hasValues()) {
+            RegionParser parser = parsers.get();
+            if (!parser.parse(data.getData(), RegionFormat.fromDroneId(data.getDroneId()))) {
+                erro(name + " recebeu dados fora do formato da região " + data.getDroneId() + ": " + data.getData());
+                return;
+            }
+            parser.applyTo(data);
+        }
+        trace(event, "decode", data, frame.length());
+        forward(store, data);
+    }
+
+    private void store(DatagramDrone data) {
+        long timestamp = data.getTimestamp() > 0 ? data.getTimestamp() : System.currentTimeMillis();
+        ServerStageEvent event = new ServerStageEvent();
+        event.begin();
+        long start = System.nanoTime();
+        database.saveData(data.getDroneId(), timestamp, data.getTemperatura(), data.getUmidade(), data.getPressao(), data.getRadiacao());
+        storeLatency.recordSince(start);
+        trace(event, "store", data, DroneCodec.SIZE);
+        forward(fanout, data);
+    }
+
+    private void fanOut(DatagramDrone data) {
+        ServerStageEvent event = new ServerStageEvent();
+        event.begin();
+        // Formato padrão [temperatura//umidade//pressao//radiacao], montado apenas quando o log é emitido
+        debug(() -> name + " Mensagem recebida e salva no banco de dados: " + data.toClimateData());
+
+        multicastSender.send(data);
+        trace(event, "multicast", data, DroneCodec.SIZE);
+    }
+
+    // Evento JFR da etapa; nas etapas após o decode o tamanho é o da leitura binária enviada ao grupo
+    private void trace(ServerStageEvent event, String stage, DatagramDrone data, int bytes) {
+        if (event.shouldCommit()) {
+            event.set(data, bytes);
+            event.server = name;
+            event.stage = stage;
+            event.commit();
+        }
+    }
+
+    private <T> void forward(PipelineStage<T> next, T item) {
+        try {
+            next.submit(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public List<PipelineStage<?>> getStages() {
+        return List.of(decode, store, fanout);
+    }
+
+    // Encerra na ordem do fluxo para que cada estágio esvazie antes do seguinte
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        decode.close();
+        store.close();
+        fanout.close();
+        info(name + " pipeline: " + decode + " " + store + " " + fanout);
+    }
+}
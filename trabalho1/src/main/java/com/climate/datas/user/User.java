@@ -5,16 +5,22 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.MulticastSocket;
 import java.net.NetworkInterface;
-import java.net.SocketException;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Scanner;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import com.climate.datas.utils.Loggable;
 import com.climate.datas.utils.ServerInfo;
 import com.climate.datas.utils.common.Communicator;
+import com.climate.datas.utils.common.HopLatency;
+import com.climate.datas.utils.common.NetworkConfig;
+import com.climate.datas.utils.common.RoleMetrics;
 import com.climate.datas.utils.drone.DatagramDrone;
+import com.climate.datas.utils.drone.DroneBatch;
+import com.climate.datas.utils.drone.DroneCodec;
+import com.climate.datas.utils.jfr.UserReceiveEvent;
 import com.climate.datas.utils.user.UserResponse;
 import com.climate.datas.utils.user.UserResponseEnum;
 
@@ -26,27 +32,38 @@ public class User extends Communicator implements Loggable, AutoCloseable {
     private MulticastSocket dataSocket;              // MulticastSocket
     private NetworkInterface interfaceAddress;       // Endereço da interface de rede
     private ServerInfo servidor;                     // Informações do servidor
-    private final Scanner scanner;                   // Scanner para entrada do usuário
+    private final Scanner scanner;                   // Scanner para entrada do usuário (null: escolha fixa)
     private volatile boolean running = false;        // Flag indicadora de execução
-    private final String interfaceName = "Ethernet"; // Nome da interface de rede
+    private final UserResponseEnum choice;           // Técnica de balanceamento sem perguntar no console (null: pergunta)
+    private volatile Consumer<DatagramDrone> listener; // Recebe cada leitura que chega do grupo (benchmarks)
+    private final RoleMetrics metrics;               // Latências publicadas no JMX
+    private final HopLatency receiveLatency;         // Coleta no drone -> chegada no usuário
 
     private static final Map<Integer, UserResponseEnum> OPTIONS = Map.of(0, UserResponseEnum.HASHING, 1, UserResponseEnum.ROUND_ROBIN);
 
     public User(int id) {
+        this(id, NetworkConfig.fromProperties(), null);
+    }
+
+    // Com choice definido o usuário não lê do console, o que permite vários usuários no mesmo processo
+    public User(int id, NetworkConfig network, UserResponseEnum choice) {
         super("User-" + id);
         this.id = id;
-        this.portBalancer = 50000; // Porta do load balancer
-        this.hostBalancer = "10.10.71.58";
-
-        scanner = new Scanner(System.in);
-        try {
-            interfaceAddress = NetworkInterface.getByName(interfaceName);
-        } catch (SocketException e) {
-            erro("Erro ao obter a interface de rede: " + e.getMessage());
-        }
+        this.portBalancer = network.balancerPort(); // Porta do load balancer
+        this.hostBalancer = network.host();
+        this.choice = choice;
+        this.metrics = new RoleMetrics("User", "User-" + id);
+        this.receiveLatency = metrics.hop("receive");
+
+        scanner = choice == null ? new Scanner(System.in) : null;
+        interfaceAddress = network.networkInterface();
         getServerInfo();
     }
 
+    public void setListener(Consumer<DatagramDrone> listener) {
+        this.listener = listener;
+    }
+
     public void getServerInfo() {
         connect(hostBalancer, portBalancer);
         boolean received = false;
@@ -56,6 +73,15 @@ public class User extends Communicator implements Loggable, AutoCloseable {
             return;
         }
 
+        if (choice != null) {
+            sendJsonMessage(new UserResponse(id, choice));
+            Optional.ofNullable(receiveJsonMessage(ServerInfo.class)).ifPresentOrElse(s -> {
+                servidor = s;
+                info("Grupo de Servidor Recebido: " + servidor.getHost() + ":" + servidor.getPort());
+            }, () -> erro("Nenhum grupo multicast disponível no LoadBalancer."));
+            received = true;
+        }
+
         while (isConnected() && !received) {
             System.out.println("Escolha a técnica de balanceamento de carga!");
             System.out.println("0. Hashing (Consistent Hashing)");
@@ -102,21 +128,26 @@ public class User extends Communicator implements Loggable, AutoCloseable {
              * O generate cria um fluxo infinito. Recebe uma função que gera uma saída a cada chamada.
              * Nesse caso, ele gera um DatagramPacket a cada chamada, recebendo pacotes do MulticastSocket.
              * Quando o pacote é recebido, ele é processado, validado e impresso.
+             *
+             * O mesmo pacote (e buffer) é reaproveitado a cada recebimento: cada datagrama
+             * é decodificado por inteiro antes do próximo receive.
             */
+            DatagramPacket receivePacket = new DatagramPacket(new byte[65507], 65507);
             Stream.generate(() -> {
-                byte[] buffer = new byte[1024];
-                DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+                receivePacket.setLength(receivePacket.getData().length);
                 try {
-                    dataSocket.receive(packet);
-                    return packet;
+                    dataSocket.receive(receivePacket);
+                    return receivePacket;
                 } catch (Exception e) {
                     erro("Erro ao receber pacote: " + e.getMessage());
                     running = false;
                     return null;
                 }
             }).takeWhile(packet -> running && packet != null).forEach(packet -> {
-                info("Mensagem recebida do grupo multicast: " + packet.getAddress() + ":" + packet.getPort());
-                printMessage(DatagramDrone.fromPacket(packet));
+                debug(() -> "Mensagem recebida do grupo multicast: " + packet.getAddress() + ":" + packet.getPort());
+                // Cada datagrama pode trazer um lote de leituras do servidor
+                int readingBytes = DroneBatch.readingSize(packet.getData()[packet.getOffset()], packet.getLength());
+                DroneBatch.forEach(packet.getData(), packet.getOffset(), packet.getLength(), reading -> printMessage(reading, readingBytes));
             });
         } catch (Exception e) {
             erro("Erro inesperado no LoadBalancer: " + e.getMessage());
@@ -126,22 +157,50 @@ public class User extends Communicator implements Loggable, AutoCloseable {
     }
 
     public void printMessage(DatagramDrone message) {
-        info("Mensagem recebida do grupo multicast: " + message);
+        printMessage(message, message.hasValues() ? DroneCodec.SIZE : 0);
+    }
+
+    // bytes: tamanho da leitura no datagrama, registrado no evento JFR
+    public void printMessage(DatagramDrone message, int bytes) {
+        UserReceiveEvent event = new UserReceiveEvent();
+        event.begin();
+        receiveLatency.recordSinceOrigin(message.getTimestamp());
+        Consumer<DatagramDrone> current = listener;
+        if (current != null) {
+            current.accept(message);
+        }
+        // Leituras binárias são exibidas no formato padrão, como o servidor as salvou (só com o console ligado)
+        display(() -> "Mensagem recebida do grupo multicast: "
+                + (message.hasValues() ? "Drone ID: " + message.getDroneId() + ", Dados: " + message.toClimateData() : message));
+        if (event.shouldCommit()) {
+            event.set(message, bytes);
+            event.user = "User-" + id;
+            event.commit();
+        }
+    }
+
+    public RoleMetrics getMetrics() {
+        return metrics;
     }
 
     @Override
     public void close() {
         running = false;
+        metrics.close();
         if (scanner != null) {
             scanner.close();
         }
         disconnect();
-        Optional.ofNullable(dataSocket).filter(s -> !s.isClosed() && grupo != null && interfaceAddress != null).ifPresent(socket -> {
+        Optional.ofNullable(dataSocket).filter(s -> !s.isClosed()).ifPresent(socket -> {
             try {
-                socket.leaveGroup(grupo, interfaceAddress);
-                socket.close();
+                // Sem interface configurada (a padrão do sistema) só o fechamento já deixa o grupo
+                if (grupo != null && interfaceAddress != null) {
+                    socket.leaveGroup(grupo, interfaceAddress);
+                }
             } catch (Exception e) {
-                erro("Erro ao fechar o MulticastSocket: " + e.getMessage());
+                erro("Erro ao sair do grupo multicast: " + e.getMessage());
+            } finally {
+                socket.close();
             }
         });
     }
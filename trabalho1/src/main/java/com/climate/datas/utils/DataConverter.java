@@ -1,33 +1,61 @@
 package com.climate.datas.utils;
 
-import java.util.List;
-import java.util.regex.MatchResult;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import com.climate.datas.utils.drone.RegionFormat;
 
 public class DataConverter {
 
+    // Converte o texto no formato da região para ClimateData; devolve null se o texto for inválido
+    public static ClimateData parse(CharSequence rawData, RegionFormat format) {
+        RegionParser parser = new RegionParser();
+        return parser.parse(rawData, format) ? parser.toClimateData() : null;
+    }
+
+    /*
+     * Extrai todos os números do texto (inteiros ou decimais, com sinal) e monta
+     * "[a//b//c//d]" na ordem em que aparecem. Percorre o texto uma única vez,
+     * sem regex. Para dados de drones prefira parse(), que conhece o formato da região.
+     */
     public static String convertToStandardFormat(String rawData) {
         if (rawData == null || rawData.isEmpty()) {
             return "";
         }
 
-        // Remove caracteres indesejados como { } ( )
-        String cleanedData = rawData.replaceAll("[{}()]", "");
-
-        // Regex para capturar números corretamente, incluindo negativos e decimais
-        Pattern numberPattern = Pattern.compile("-?\\d+(\\.\\d+)?");
-
-        // Matcher para encontrar os números no texto
-        Matcher matcher = numberPattern.matcher(cleanedData);
+        StringBuilder output = new StringBuilder(rawData.length() + 8).append('[');
+        int length = rawData.length();
+        boolean first = true;
+        int i = 0;
+
+        while (i < length) {
+            int start = i;
+            if (rawData.charAt(i) == '-' && i + 1 < length && isDigit(rawData.charAt(i + 1))) {
+                i++;
+            }
+            if (!isDigit(rawData.charAt(i))) {
+                i = start + 1;
+                continue;
+            }
+            while (i < length && isDigit(rawData.charAt(i))) {
+                i++;
+            }
+            // A parte decimal só conta se houver ao menos um dígito depois do ponto
+            if (i + 1 < length && rawData.charAt(i) == '.' && isDigit(rawData.charAt(i + 1))) {
+                i += 2;
+                while (i < length && isDigit(rawData.charAt(i))) {
+                    i++;
+                }
+            }
+
+            if (!first) {
+                output.append("//");
+            }
+            output.append(rawData, start, i);
+            first = false;
+        }
 
-        // Coletando todos os números encontrados
-        List<String> numbers = matcher.results()
-                .map(MatchResult::group)
-                .collect(Collectors.toList());
+        return output.append(']').toString();
+    }
 
-        // Montando a saída no formato padrão
-        return "[" + String.join("//", numbers) + "]";
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
     }
 }
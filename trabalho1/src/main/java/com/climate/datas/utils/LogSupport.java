@@ -0,0 +1,32 @@
+package com.climate.datas.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Estado compartilhado pelos métodos de Loggable
+final class LogSupport {
+    static final String LINE = "--------------------------------------------------------------";
+
+    // Eco das mensagens no console, lido uma vez na inicialização (-Dlog.console=false desativa)
+    static final boolean CONSOLE = Boolean.parseBoolean(System.getProperty("log.console", "true"));
+
+    // Um Logger por classe, sem passar pelo LoggerFactory a cada mensagem
+    private static final ClassValue<Logger> LOGGERS = new ClassValue<>() {
+        @Override
+        protected Logger computeValue(Class<?> type) {
+            return LoggerFactory.getLogger(type.getName());
+        }
+    };
+
+    private LogSupport() {}
+
+    static Logger logger(Class<?> type) {
+        return LOGGERS.get(type);
+    }
+
+    // Uma única escrita no console por mensagem
+    static void console(String message, boolean line) {
+        String separator = System.lineSeparator();
+        System.out.print(separator + message + separator + (line ? LINE + separator : ""));
+    }
+}
@@ -1,43 +1,108 @@
 package com.climate.datas.utils;
 
+import java.util.function.Supplier;
+
 import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
+/*
+ * Log com eco opcional no console (-Dlog.console, ativo por padrão).
+ *
+ * As versões com Supplier só montam a mensagem quando ela vai para algum lugar:
+ * com o console desligado e o nível desativado no logback, não custam nada além
+ * da verificação.
+ *
+ * O tráfego por mensagem (envios, recebimentos, escolha de servidor) vai em
+ * debug, que não ecoa no console: na configuração padrão (info) nada é montado.
+ * O que o papel mostra ao operador a cada leitura vai em display, que só monta
+ * a mensagem com o console ligado.
+ */
 public interface Loggable {
     default Logger logger() {
-        return LoggerFactory.getLogger(this.getClass().getName());
+        return LogSupport.logger(getClass());
     }
 
     default void info(String message) {
-        System.out.println("\n" + message);
+        if (LogSupport.CONSOLE) {
+            LogSupport.console(message, true);
+        }
         logger().info(message);
-        System.out.println("--------------------------------------------------------------");
+    }
+
+    default void info(Supplier<String> message) {
+        if (LogSupport.CONSOLE || logger().isInfoEnabled()) {
+            info(message.get());
+        }
     }
 
     default void infoNoLine(String message) {
-        System.out.println("\n" + message);
+        if (LogSupport.CONSOLE) {
+            LogSupport.console(message, false);
+        }
         logger().info(message);
     }
 
+    default void infoNoLine(Supplier<String> message) {
+        if (LogSupport.CONSOLE || logger().isInfoEnabled()) {
+            infoNoLine(message.get());
+        }
+    }
+
     default void message(String message) {
         logger().info(message);
     }
 
+    default void message(Supplier<String> message) {
+        Logger logger = logger();
+        if (logger.isInfoEnabled()) {
+            logger.info(message.get());
+        }
+    }
+
     default void erro(String message) {
-        System.out.println("\n" + message);
+        if (LogSupport.CONSOLE) {
+            LogSupport.console(message, true);
+        }
         logger().error(message);
-        System.out.println("--------------------------------------------------------------");
+    }
+
+    default void erro(Supplier<String> message) {
+        if (LogSupport.CONSOLE || logger().isErrorEnabled()) {
+            erro(message.get());
+        }
     }
 
     default void debug(String message) {
-        System.out.println("\n" + message);
         logger().debug(message);
-        System.out.println("--------------------------------------------------------------");
+    }
+
+    default void debug(Supplier<String> message) {
+        Logger logger = logger();
+        if (logger.isDebugEnabled()) {
+            logger.debug(message.get());
+        }
+    }
+
+    // Saída do papel no console; no arquivo, só com debug ativo
+    default void display(Supplier<String> message) {
+        if (LogSupport.CONSOLE) {
+            String text = message.get();
+            LogSupport.console(text, true);
+            logger().debug(text);
+        } else {
+            debug(message);
+        }
     }
 
     default void warn(String message) {
-        System.out.println("\n" + message);
+        if (LogSupport.CONSOLE) {
+            LogSupport.console(message, true);
+        }
         logger().warn(message);
-        System.out.println("--------------------------------------------------------------");
     }
-}
\ No newline at end of file
+
+    default void warn(Supplier<String> message) {
+        if (LogSupport.CONSOLE || logger().isWarnEnabled()) {
+            warn(message.get());
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.climate.datas.utils;
+
+import com.climate.datas.utils.drone.DatagramDrone;
+import com.climate.datas.utils.drone.RegionFormat;
+
+/*
+ * Parser manual dos dados no formato de cada região (ver RegionFormat).
+ *
+ * Percorre os caracteres uma única vez, sem regex e sem criar Strings
+ * intermediárias, e guarda os quatro valores na ordem em que o drone os
+ * envia: pressao, radiacao, temperatura, umidade. A mesma instância pode ser
+ * reaproveitada para várias mensagens (não é thread-safe).
+ */
+public final class RegionParser {
+    // Potências de 10 exatas em double (até 10^22)
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    // Até 15 dígitos a mantissa cabe exata em um double, então uma única divisão dá o valor correto
+    private static final int MAX_FAST_DIGITS = 15;
+
+    private double pressao;
+    private double radiacao;
+    private double temperatura;
+    private double umidade;
+
+    private CharSequence raw;
+    private int pos;
+    private int end;
+
+    // Retorna false se o texto não estiver no formato da região
+    public boolean parse(CharSequence raw, RegionFormat format) {
+        if (format == null || !begin(raw, format.getOpen(), format.getClose())) {
+            return false;
+        }
+
+        char separator = format.getSeparator();
+        if (Double.isNaN(pressao = nextNumber()) || !skip(separator, 1)
+                || Double.isNaN(radiacao = nextNumber()) || !skip(separator, 1)
+                || Double.isNaN(temperatura = nextNumber()) || !skip(separator, 1)
+                || Double.isNaN(umidade = nextNumber())) {
+            return false;
+        }
+        return pos == end;
+    }
+
+    // Formato padrão dos servidores: [temperatura//umidade//pressao//radiacao]
+    public boolean parseStandard(CharSequence raw) {
+        if (!begin(raw, '[', ']')) {
+            return false;
+        }
+
+        if (Double.isNaN(temperatura = nextNumber()) || !skip('/', 2)
+                || Double.isNaN(umidade = nextNumber()) || !skip('/', 2)
+                || Double.isNaN(pressao = nextNumber()) || !skip('/', 2)
+                || Double.isNaN(radiacao = nextNumber())) {
+            return false;
+        }
+        return pos == end;
+    }
+
+    public ClimateData toClimateData() {
+        return new ClimateData(temperatura, umidade, pressao, radiacao);
+    }
+
+    // Copia os valores para o DatagramDrone, mantendo id, sequência e timestamp
+    public void applyTo(DatagramDrone target) {
+        target.setValues(target.getDroneId(), target.getSequence(), target.getTimestamp(),
+                pressao, radiacao, temperatura, umidade);
+    }
+
+    public double getPressao() {
+        return pressao;
+    }
+
+    public double getRadiacao() {
+        return radiacao;
+    }
+
+    public double getTemperatura() {
+        return temperatura;
+    }
+
+    public double getUmidade() {
+        return umidade;
+    }
+
+    // Posiciona o cursor dentro dos delimitadores ('\0' quando o formato não tem)
+    private boolean begin(CharSequence raw, char open, char close) {
+        if (raw == null) {
+            return false;
+        }
+        this.raw = raw;
+        this.pos = 0;
+        this.end = raw.length();
+
+        if (open != '\0') {
+            if (pos >= end || raw.charAt(pos) != open) {
+                return false;
+            }
+            pos++;
+        }
+        if (close != '\0') {
+            if (end <= pos || raw.charAt(end - 1) != close) {
+                return false;
+            }
+            end--;
+        }
+        return true;
+    }
+
+    private boolean skip(char separator, int times) {
+        for (int i = 0; i < times; i++) {
+            if (pos >= end || raw.charAt(pos) != separator) {
+                return false;
+            }
+            pos++;
+        }
+        return true;
+    }
+
+    // Lê um número a partir de pos; devolve NaN se não houver número válido
+    private double nextNumber() {
+        int start = pos;
+        boolean negative = false;
+        if (pos < end && (raw.charAt(pos) == '-' || raw.charAt(pos) == '+')) {
+            negative = raw.charAt(pos) == '-';
+            pos++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        char c;
+        while (pos < end && (c = raw.charAt(pos)) >= '0' && c <= '9') {
+            mantissa = mantissa * 10 + (c - '0');
+            digits++;
+            pos++;
+        }
+        int integerDigits = digits;
+        if (pos < end && raw.charAt(pos) == '.') {
+            pos++;
+            while (pos < end && (c = raw.charAt(pos)) >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                scale++;
+                pos++;
+            }
+        }
+        if (integerDigits == 0 && scale == 0) {
+            return Double.NaN;
+        }
+
+        // Notação científica ou dígitos demais: cai no parser do JDK (caso raro)
+        if (digits > MAX_FAST_DIGITS || (pos < end && (raw.charAt(pos) == 'e' || raw.charAt(pos) == 'E'))) {
+            return slowNumber(start);
+        }
+
+        double value = scale == 0 ? mantissa : mantissa / POW10[scale];
+        return negative ? -value : value;
+    }
+
+    private double slowNumber(int start) {
+        pos = start;
+        if (pos < end && (raw.charAt(pos) == '-' || raw.charAt(pos) == '+')) {
+            pos++;
+        }
+        char c;
+        while (pos < end && (((c = raw.charAt(pos)) >= '0' && c <= '9') || c == '.' || c == 'e' || c == 'E'
+                || ((c == '-' || c == '+') && (raw.charAt(pos - 1) == 'e' || raw.charAt(pos - 1) == 'E')))) {
+            pos++;
+        }
+        try {
+            return Double.parseDouble(raw.subSequence(start, pos).toString());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+}
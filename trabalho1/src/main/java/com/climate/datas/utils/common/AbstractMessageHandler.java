@@ -1,24 +1,58 @@
 package com.climate.datas.utils.common;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import com.climate.datas.utils.JsonSerializable;
 import com.climate.datas.utils.Loggable;
 import com.climate.datas.utils.common.interfaces.MessageHandler;
+import com.climate.datas.utils.drone.DatagramDrone;
+import com.climate.datas.utils.jfr.MessageSentEvent;
 
 public class AbstractMessageHandler implements MessageHandler, JsonSerializable, Loggable {
     protected PrintWriter out;
     protected BufferedReader in;
     protected String name;
 
+    // Agrupamento opcional de mensagens: null significa um flush por mensagem
+    private BatchPolicy batchPolicy;
+    private int pending = 0;                        // Mensagens escritas e ainda não descarregadas
+    private volatile long pendingBytes = 0;         // Bytes (UTF-8) escritos desde o último flush concluído
+    private ScheduledFuture<?> lingerTask;          // Flush agendado pela primeira mensagem do lote
+
+    private static final int SEPARATOR_BYTES = System.lineSeparator().length();
+
+    // Thread única (daemon) compartilhada por todos os handlers, só para marcar o tempo do lote.
+    // O flush em si bloqueia enquanto o par não lê, então roda em FLUSH_WORKERS: um servidor parado
+    // prende apenas a sua thread e não atrasa os lotes das outras conexões. São threads de plataforma
+    // porque o flush bloqueia dentro do monitor do handler, o que prenderia a portadora de uma virtual
+    private static final ScheduledExecutorService FLUSHER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "message-batch-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final ExecutorService FLUSH_WORKERS = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "message-batch-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     public AbstractMessageHandler(OutputStream out, InputStream in, String name) {
-        this.out = new PrintWriter(out, true);
-        this.in = new BufferedReader(new InputStreamReader(in));
+        this.out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)), false);
+        this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
         this.name = name;
 
         if (this.out == null) {
@@ -28,34 +62,144 @@ public class AbstractMessageHandler implements MessageHandler, JsonSerializable,
         message("O " + name + " abriu o Fluxo de Dados com sucesso!");
     }
 
+    public synchronized void enableBatching(BatchPolicy policy) {
+        disableBatching();
+        if (policy == null) {
+            return;
+        }
+        batchPolicy = policy;
+    }
+
+    public synchronized void disableBatching() {
+        batchPolicy = null;
+        flush();
+    }
+
     public void sendTextMessage(String message) {
-        out.println(message);
+        writeLine(message);
 
-        message(name + " enviou uma mensagem texto: " + message);
+        debug(() -> name + " enviou uma mensagem texto: " + message);
     }
 
     public void sendJsonMessage(Object message) {
-        String jsonMessage = message == null ? "null"
+        MessageSentEvent event = new MessageSentEvent();
+        event.begin();
+        String jsonMessage = toJsonMessage(message);
+
+        writeLine(jsonMessage);
+        trace(event, message, jsonMessage);
+        debug(() -> name + " enviou uma mensagem json: " + jsonMessage);
+    }
+
+    // Escreve todas as mensagens e faz um único flush, uma mensagem por linha
+    public void sendBatch(List<?> messages) {
+        if (messages == null || messages.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            if (out == null) {
+                erro("O fluxo de saída está fechado. Lote descartado.");
+                return;
+            }
+            for (Object message : messages) {
+                String line = toJsonMessage(message);
+                out.println(line);
+                pendingBytes += utf8Length(line) + SEPARATOR_BYTES;
+            }
+            flush();
+        }
+        debug(() -> name + " enviou um lote de " + messages.size() + " mensagens json");
+    }
+
+    public synchronized void flush() {
+        cancelLinger();
+        if (out != null) {
+            pending = 0;
+            // Bloqueia enquanto o servidor não lê o socket; até lá os bytes contam como fila de escrita
+            out.flush();
+            pendingBytes = 0;
+            // O PrintWriter não lança IOException: a falha de escrita só aparece em checkError()
+            if (out.checkError()) {
+                erro(name + " não conseguiu escrever no socket. Fechando a conexão.");
+                close();
+            }
+        }
+    }
+
+    public long getPendingBytes() {
+        return pendingBytes;
+    }
+
+    private synchronized void cancelLinger() {
+        if (lingerTask != null) {
+            lingerTask.cancel(false);
+            lingerTask = null;
+        }
+    }
+
+    private synchronized void writeLine(String line) {
+        if (out == null) {
+            erro("O fluxo de saída está fechado. Mensagem descartada.");
+            return;
+        }
+        out.println(line);
+        pendingBytes += utf8Length(line) + SEPARATOR_BYTES;
+        if (batchPolicy == null || ++pending >= batchPolicy.maxMessages()) {
+            flush();
+        } else if (pending == 1) {
+            // Só o lote aberto tem flush agendado: conexões ociosas não geram tarefas
+            lingerTask = FLUSHER.schedule(() -> FLUSH_WORKERS.execute(this::flush), batchPolicy.lingerMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Tamanho da linha codificada em UTF-8, sem codificá-la
+    private static int utf8Length(String line) {
+        int bytes = line.length();
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    bytes++;
+                } else if (Character.isHighSurrogate(c)) {
+                    i++;                        // Par substituto: 4 bytes para 2 chars
+                    bytes += 2;
+                } else {
+                    bytes += 2;
+                }
+            }
+        }
+        return bytes;
+    }
+
+    // Evento JFR do envio (Communicator.sendJsonMessage); o tamanho é o do JSON, sem o enquadramento
+    private void trace(MessageSentEvent event, Object message, String jsonMessage) {
+        if (event.shouldCommit()) {
+            event.set(message instanceof DatagramDrone drone ? drone : null, jsonMessage.length());
+            event.connection = name;
+            event.commit();
+        }
+    }
+
+    private String toJsonMessage(Object message) {
+        return message == null ? "null"
                 : (message instanceof JsonSerializable ? ((JsonSerializable) message).toJson()
                 : String.valueOf(message));
-
-        out.println(jsonMessage);
-        message(name + " enviou uma mensagem json: " + jsonMessage);
     }
 
+    // null quando a conexão terminou ou a leitura falhou: quem está em laço deve parar de ler
     public String receiveTextMessage() {
         if (in != null) {
             try {
                 String messagem = in.readLine();
-                message(name + " recebeu uma mensagem texto: " + messagem);
+                debug(() -> name + " recebeu uma mensagem texto: " + messagem);
                 return messagem;
             } catch (IOException e) {
                 erro("Erro ao receber mensagem de texto: " + e);
-                return "Erro: " + e;
+                return null;
             }
         } else {
             erro("O buffer de entrada está nulo. Fluxo de Dados não aberto.");
-            return "O buffer de entrada está nulo. ";
+            return null;
         }
     }
 
@@ -81,9 +225,11 @@ public class AbstractMessageHandler implements MessageHandler, JsonSerializable,
         return null;
     }
 
-    public void close() {
+    public synchronized void close() {
         try {
+            cancelLinger();
             if (out != null && in != null) {
+                out.flush();
                 out.close();
                 in.close();
                 out = null;
@@ -3,6 +3,7 @@ package com.climate.datas.utils.common;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.Socket;
+import java.net.SocketTimeoutException;
 
 import com.climate.datas.utils.Loggable;
 import com.climate.datas.utils.common.interfaces.SocketConnection;
@@ -89,6 +90,38 @@ public class AbstractSocketConnection implements SocketConnection, Loggable {
         return socket.isClosed();
     }
 
+    /*
+     * Um socket continua "aberto" localmente depois que o outro lado morre. A sonda
+     * tenta ler com timeout curto: fim de fluxo ou erro indicam que a conexão caiu,
+     * timeout indica que ela segue viva. Só serve para conexões em que o outro lado
+     * não envia dados (DataCenter -> Server), pois um byte lido aqui é descartado.
+     */
+    @Override
+    public synchronized boolean probe() {
+        if (!isConnected()) {
+            return false;
+        }
+        boolean alive;
+        try {
+            int timeout = socket.getSoTimeout();
+            socket.setSoTimeout(1);
+            try {
+                alive = socket.getInputStream().read() >= 0;
+            } catch (SocketTimeoutException e) {
+                alive = true;
+            } finally {
+                socket.setSoTimeout(timeout);
+            }
+        } catch (IOException e) {
+            alive = false;
+        }
+        if (!alive) {
+            warn(name + " perdeu a conexão com " + host + ":" + port + ".");
+            disconnect();
+        }
+        return alive;
+    }
+
     @Override
     public Socket getSocket() {
         return socket;
@@ -0,0 +1,36 @@
+package com.climate.datas.utils.common;
+
+/*
+ * Política de agrupamento de mensagens em uma única escrita no socket.
+ *
+ * As mensagens pendentes são descarregadas quando atingem maxMessages ou quando
+ * a mais antiga espera lingerMillis, o que acontecer primeiro.
+ * Pode ser ativada com a propriedade -Dcommunicator.batch=mensagens,milissegundos (ex.: 64,2).
+ */
+public record BatchPolicy(int maxMessages, long lingerMillis) {
+    public static final BatchPolicy DEFAULT = new BatchPolicy(64, 2);
+
+    public BatchPolicy {
+        if (maxMessages <= 0 || lingerMillis <= 0) {
+            throw new IllegalArgumentException("Tamanho do lote e tempo de espera devem ser positivos.");
+        }
+    }
+
+    // Retorna null quando a propriedade não foi definida (envio imediato)
+    public static BatchPolicy fromProperty() {
+        String value = System.getProperty("communicator.batch");
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        if (value.equalsIgnoreCase("default") || value.equalsIgnoreCase("true")) {
+            return DEFAULT;
+        }
+        String[] parts = value.split(",");
+        try {
+            return new BatchPolicy(Integer.parseInt(parts[0].trim()),
+                    parts.length > 1 ? Long.parseLong(parts[1].trim()) : DEFAULT.lingerMillis());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido para communicator.batch: " + value, e);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.climate.datas.utils.common;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.Getter;
+
+/*
+ * Pool de ByteBuffers diretos reaproveitados entre recepções.
+ *
+ * Os buffers são alocados uma única vez (fora do heap) e devolvidos ao pool
+ * quando o processamento termina. Se o pool esvaziar, acquire() bloqueia até
+ * que algum buffer seja devolvido, limitando o número de pacotes em trânsito.
+ */
+public class BufferPool {
+    private final BlockingQueue<ByteBuffer> free;   // Buffers disponíveis
+    @Getter
+    private final int bufferSize;                   // Tamanho de cada buffer
+    @Getter
+    private final int capacity;                     // Quantidade total de buffers
+    private final LongAdder waits = new LongAdder(); // Vezes em que o pool estava vazio
+
+    public BufferPool(int capacity, int bufferSize) {
+        if (capacity <= 0 || bufferSize <= 0) {
+            throw new IllegalArgumentException("Capacidade e tamanho do buffer devem ser positivos.");
+        }
+        this.capacity = capacity;
+        this.bufferSize = bufferSize;
+        this.free = new ArrayBlockingQueue<>(capacity);
+        for (int i = 0; i < capacity; i++) {
+            free.add(ByteBuffer.allocateDirect(bufferSize));
+        }
+    }
+
+    public ByteBuffer acquire() throws InterruptedException {
+        ByteBuffer buffer = free.poll();
+        if (buffer == null) {
+            waits.increment();
+            buffer = free.take();
+        }
+        return buffer.clear();
+    }
+
+    public void release(ByteBuffer buffer) {
+        if (buffer != null && buffer.isDirect() && buffer.capacity() == bufferSize) {
+            free.offer(buffer.clear());
+        }
+    }
+
+    public int available() {
+        return free.size();
+    }
+
+    public long getWaits() {
+        return waits.sum();
+    }
+}
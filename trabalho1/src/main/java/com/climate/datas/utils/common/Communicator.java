@@ -4,21 +4,33 @@ import lombok.Getter;
 
 import java.io.IOException;
 import java.net.Socket;
+import java.util.List;
+
+import com.climate.datas.utils.common.interfaces.MessageHandler;
+import com.climate.datas.utils.common.interfaces.SocketConnection;
 
 @Getter
 public class Communicator implements AutoCloseable {
-    private final AbstractSocketConnection connection;
-    private AbstractMessageHandler ioHandler;
+    private final SocketConnection connection;
+    private MessageHandler ioHandler;
     private final String name;
+    private final IoMode ioMode;        // Implementação de rede (bloqueante ou selector)
+    private BatchPolicy batchPolicy;    // Política de agrupamento de envios (null = envio imediato)
 
     public Communicator(String name) {
-        this.connection = new AbstractSocketConnection(name);
+        this(name, IoMode.fromProperty());
+    }
+
+    public Communicator(String name, IoMode ioMode) {
+        this.connection = ioMode == IoMode.SELECTOR ? new NioSocketConnection(name) : new AbstractSocketConnection(name);
         this.name = name;
+        this.ioMode = ioMode;
     }
 
     public Communicator(Socket socket, String name) {
         this.connection = new AbstractSocketConnection(socket, name);
         this.name = name;
+        this.ioMode = IoMode.BLOCKING;
         if (connection.isConnected()) {
             createIOHandler();
         }
@@ -36,7 +48,13 @@ public class Communicator implements AutoCloseable {
             if (ioHandler != null) {
                 ioHandler.close();
             }
-            ioHandler = new AbstractMessageHandler(connection.getSocket().getOutputStream(), connection.getSocket().getInputStream(), name);
+            if (connection instanceof NioSocketConnection nioConnection) {
+                ioHandler = NioEventLoop.shared().register(nioConnection.getChannel(), name, null);
+                return;
+            }
+            AbstractMessageHandler handler = new AbstractMessageHandler(connection.getSocket().getOutputStream(), connection.getSocket().getInputStream(), name);
+            handler.enableBatching(batchPolicy);
+            ioHandler = handler;
         } catch (IOException e) {
             throw new RuntimeException("Erro ao tentar abrir Fluxo de Dados!", e);
         }
@@ -58,6 +76,29 @@ public class Communicator implements AutoCloseable {
         ioHandler.sendJsonMessage(message);
     }
 
+    public void sendBatch(List<?> messages) {
+        ioHandler.sendBatch(messages);
+    }
+
+    // Ativa (ou desativa, com null) o agrupamento de envios, mantido em reconexões
+    public void enableBatching(BatchPolicy policy) {
+        this.batchPolicy = policy;
+        if (ioHandler instanceof AbstractMessageHandler handler) {
+            handler.enableBatching(policy);
+        }
+    }
+
+    public void flush() {
+        if (ioHandler != null) {
+            ioHandler.flush();
+        }
+    }
+
+    public long getPendingBytes() {
+        MessageHandler handler = ioHandler;
+        return handler != null ? handler.getPendingBytes() : 0;
+    }
+
     public String receiveTextMessage() {
         return ioHandler.receiveTextMessage();
     }
@@ -74,6 +115,10 @@ public class Communicator implements AutoCloseable {
         return connection.isClosed();
     }
 
+    public boolean probe() {
+        return connection.probe();
+    }
+
     public Socket getSocket() {
         return connection.getSocket();
     }
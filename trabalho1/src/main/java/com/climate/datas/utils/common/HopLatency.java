@@ -0,0 +1,92 @@
+package com.climate.datas.utils.common;
+
+import java.util.concurrent.TimeUnit;
+
+import com.climate.datas.utils.common.interfaces.HopLatencyMXBean;
+
+/*
+ * Latência de uma etapa do caminho drone -> usuário, sobre um LatencyHistogram.
+ *
+ * record() e recordSinceOrigin() não alocam nem bloqueiam e podem ficar ativos
+ * em produção; os percentis só são calculados quando lidos (JMX). A taxa é a
+ * média de registros por segundo desde a criação ou o último reset().
+ */
+public class HopLatency implements HopLatencyMXBean {
+    private final String hop;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private volatile long sinceNanos = System.nanoTime();
+
+    public HopLatency(String hop) {
+        this.hop = hop;
+    }
+
+    public String getHop() {
+        return hop;
+    }
+
+    public void record(long nanos) {
+        histogram.record(nanos);
+    }
+
+    public void recordSince(long startNanos) {
+        histogram.recordSince(startNanos);
+    }
+
+    // Desde o instante de coleta da leitura (DatagramDrone.timestamp, epoch em ms); 0 indica origem desconhecida
+    public void recordSinceOrigin(long originMillis) {
+        if (originMillis > 0) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - originMillis));
+        }
+    }
+
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+
+    @Override
+    public long getCount() {
+        return histogram.getCount();
+    }
+
+    @Override
+    public double getRatePerSecond() {
+        long elapsed = System.nanoTime() - sinceNanos;
+        return elapsed <= 0 ? 0 : histogram.getCount() / (elapsed / 1e9);
+    }
+
+    @Override
+    public double getMeanMicros() {
+        return histogram.getMean() / 1000.0;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return histogram.percentile(50) / 1000.0;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return histogram.percentile(99) / 1000.0;
+    }
+
+    @Override
+    public double getP999Micros() {
+        return histogram.percentile(99.9) / 1000.0;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return histogram.getMax() / 1000.0;
+    }
+
+    @Override
+    public void reset() {
+        histogram.reset();
+        sinceNanos = System.nanoTime();
+    }
+
+    @Override
+    public String toString() {
+        return hop + ": " + histogram;
+    }
+}
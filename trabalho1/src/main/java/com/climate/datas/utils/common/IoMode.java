@@ -0,0 +1,35 @@
+package com.climate.datas.utils.common;
+
+import lombok.Getter;
+
+/*
+ * Implementação de rede usada pelos Communicators, Servers e LoadBalancer.
+ *
+ * BLOCKING usa Socket + BufferedReader (uma thread parada por conexão, mensagens por linha).
+ * SELECTOR usa SocketChannel + Selector (um único laço de eventos, mensagens com prefixo de tamanho).
+ *
+ * Os dois lados de uma conexão precisam usar o mesmo modo, escolhido com -Dcommunicator.io=blocking|selector.
+ */
+@Getter
+public enum IoMode {
+    BLOCKING("blocking"), SELECTOR("selector");
+
+    private final String value;
+
+    IoMode(String value) {
+        this.value = value;
+    }
+
+    public static IoMode fromValue(String value) {
+        for (IoMode mode : IoMode.values()) {
+            if (mode.getValue().equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        return BLOCKING;
+    }
+
+    public static IoMode fromProperty() {
+        return fromValue(System.getProperty("communicator.io", BLOCKING.getValue()));
+    }
+}
@@ -0,0 +1,92 @@
+package com.climate.datas.utils.common;
+
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.climate.datas.utils.ServerInfo;
+
+/*
+ * Endereços usados por todos os papéis (Drone, DataCenter, Server, LoadBalancer, User).
+ *
+ *   host          endereço em que Servers e LoadBalancer escutam (TCP)
+ *   interfaceName interface de rede do multicast (null: a padrão do sistema)
+ *   dataCenter    grupo multicast em que os drones publicam para o DataCenter
+ *   balancerPort  porta TCP do LoadBalancer
+ *   groups        um grupo multicast por Server; a porta do grupo é também a porta TCP do Server
+ *
+ * Pode ser configurado com as propriedades (padrões entre parênteses):
+ *   -Dnet.host (10.10.71.58)  -Dnet.interface (Ethernet)  -Dnet.datacenter=ip:porta (230.0.0.1:49999)
+ *   -Dnet.balancer (50000)  -Dnet.groups=ip:porta,ip:porta (230.0.0.2:50001,230.0.0.3:50002)
+ */
+public record NetworkConfig(String host, String interfaceName, ServerInfo dataCenter, int balancerPort, List<ServerInfo> groups) {
+    public static final NetworkConfig DEFAULT = new NetworkConfig("10.10.71.58", "Ethernet",
+            new ServerInfo("230.0.0.1", 49999), 50000,
+            List.of(new ServerInfo("230.0.0.2", 50001), new ServerInfo("230.0.0.3", 50002)));
+
+    public NetworkConfig {
+        if (host == null || host.isBlank()) {
+            throw new IllegalArgumentException("Endereço dos servidores não pode ser vazio.");
+        }
+        if (groups == null || groups.isEmpty()) {
+            throw new IllegalArgumentException("É necessário ao menos um grupo multicast de servidor.");
+        }
+        groups = List.copyOf(groups);
+    }
+
+    // Tudo na interface de loopback, com portas consecutivas a partir de basePort (DataCenter, LoadBalancer, Servers)
+    public static NetworkConfig loopback(int basePort, int servers) {
+        List<ServerInfo> groups = new ArrayList<>();
+        for (int i = 0; i < servers; i++) {
+            groups.add(new ServerInfo("230.0.0." + (i + 2), basePort + 2 + i));
+        }
+        return new NetworkConfig("127.0.0.1", "lo", new ServerInfo("230.0.0.1", basePort), basePort + 1, groups);
+    }
+
+    public static NetworkConfig fromProperties() {
+        String interfaceName = System.getProperty("net.interface", DEFAULT.interfaceName());
+        String dataCenter = System.getProperty("net.datacenter");
+        String groups = System.getProperty("net.groups");
+        return new NetworkConfig(
+                System.getProperty("net.host", DEFAULT.host()),
+                interfaceName.isBlank() ? null : interfaceName,
+                dataCenter == null || dataCenter.isBlank() ? DEFAULT.dataCenter() : parseAddress(dataCenter),
+                Integer.getInteger("net.balancer", DEFAULT.balancerPort()),
+                groups == null || groups.isBlank() ? DEFAULT.groups() : parseAddresses(groups));
+    }
+
+    private static List<ServerInfo> parseAddresses(String value) {
+        List<ServerInfo> addresses = new ArrayList<>();
+        for (String part : value.split(",")) {
+            addresses.add(parseAddress(part));
+        }
+        return addresses;
+    }
+
+    private static ServerInfo parseAddress(String value) {
+        String[] parts = value.trim().split(":");
+        try {
+            return new ServerInfo(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Endereço inválido (esperado ip:porta): " + value, e);
+        }
+    }
+
+    // Endereço TCP de cada Server, na mesma ordem dos grupos
+    public List<ServerInfo> servers() {
+        return groups.stream().map(group -> new ServerInfo(host, group.getPort())).toList();
+    }
+
+    // Interface do multicast, ou null quando não configurada ou inexistente (o sistema escolhe)
+    public NetworkInterface networkInterface() {
+        if (interfaceName == null) {
+            return null;
+        }
+        try {
+            return NetworkInterface.getByName(interfaceName);
+        } catch (SocketException e) {
+            return null;
+        }
+    }
+}
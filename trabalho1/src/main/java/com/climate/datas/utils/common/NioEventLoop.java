@@ -0,0 +1,218 @@
+package com.climate.datas.utils.common;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import com.climate.datas.utils.Loggable;
+
+/*
+ * Laço de eventos de uma única thread sobre um Selector.
+ *
+ * Aceita conexões, lê e escreve em todos os canais registrados sem bloquear,
+ * de forma que uma única thread atende milhares de conexões. Toda alteração
+ * no Selector (registro, interestOps, fechamento) é feita na própria thread
+ * do laço, através de execute().
+ */
+public class NioEventLoop implements Runnable, AutoCloseable, Loggable {
+
+    // Recebe os eventos de cada conexão. onFrame roda na thread do laço: trabalho pesado deve ser repassado.
+    public interface FrameListener {
+        // false recusa o frame sem bloquear: a conexão para de ler até handler.resumeReading(), que o entrega de novo
+        boolean onFrame(NioMessageHandler handler, String frame);
+
+        default void onOpen(NioMessageHandler handler) {}
+
+        default void onClose(NioMessageHandler handler) {}
+    }
+
+    private final String name;                                      // Nome do laço (e da thread)
+    private final Selector selector;                                // Selector compartilhado pelos canais
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>(); // Tarefas a rodar na thread do laço
+    private volatile boolean running = true;                        // Flag indicadora de execução
+    private volatile Thread thread;                                 // Thread que executa o laço
+
+    private static NioEventLoop shared;                             // Laço compartilhado pelos clientes
+
+    public NioEventLoop(String name) throws IOException {
+        this.name = name;
+        this.selector = Selector.open();
+    }
+
+    // Laço usado pelas conexões de saída (Communicator em modo SELECTOR)
+    public static synchronized NioEventLoop shared() {
+        if (shared == null || !shared.running) {
+            try {
+                shared = new NioEventLoop("nio-client-loop");
+                shared.start();
+            } catch (IOException e) {
+                throw new RuntimeException("Erro ao iniciar o laço de eventos dos clientes!", e);
+            }
+        }
+        return shared;
+    }
+
+    // Executa o laço em uma thread própria (daemon)
+    public void start() {
+        Thread loopThread = new Thread(this, name);
+        loopThread.setDaemon(true);
+        loopThread.start();
+    }
+
+    public ServerSocketChannel bind(String host, int port, int backlog, FrameListener listener) throws IOException {
+        ServerSocketChannel server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getByName(host), port), backlog);
+        server.configureBlocking(false);
+        execute(() -> {
+            try {
+                server.register(selector, SelectionKey.OP_ACCEPT, listener);
+            } catch (IOException e) {
+                erro("Erro ao registrar o servidor no laço " + name + ": " + e.getMessage());
+            }
+        });
+        return server;
+    }
+
+    // Registra um canal já conectado (e não bloqueante) no laço
+    public NioMessageHandler register(SocketChannel channel, String handlerName, FrameListener listener) {
+        NioMessageHandler handler = new NioMessageHandler(channel, this, handlerName, listener);
+        execute(() -> attach(channel, handler, listener));
+        return handler;
+    }
+
+    public void execute(Runnable task) {
+        tasks.add(task);
+        if (Thread.currentThread() != thread) {
+            selector.wakeup();
+        }
+    }
+
+    public boolean inLoop() {
+        return Thread.currentThread() == thread;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void run() {
+        thread = Thread.currentThread();
+        try {
+            while (running) {
+                // Tarefas vindas de outras threads acordam o select() com wakeup()
+                runTasks();
+                selector.select();
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handleKey(key);
+                }
+            }
+        } catch (Exception e) {
+            if (running) {
+                erro("Erro inesperado no laço de eventos " + name + ": " + e.getMessage());
+            }
+        } finally {
+            running = false;
+            runTasks();
+            closeAll();
+        }
+    }
+
+    private void handleKey(SelectionKey key) {
+        try {
+            if (!key.isValid()) {
+                return;
+            }
+            if (key.isAcceptable()) {
+                accept(key);
+                return;
+            }
+            NioMessageHandler handler = (NioMessageHandler) key.attachment();
+            if (key.isReadable()) {
+                handler.onReadable();
+            }
+            if (key.isValid() && key.isWritable()) {
+                handler.onWritable();
+            }
+        } catch (Exception e) {
+            if (key.attachment() instanceof NioMessageHandler handler) {
+                handler.close();
+            } else {
+                key.cancel();
+            }
+        }
+    }
+
+    private void accept(SelectionKey key) throws IOException {
+        ServerSocketChannel server = (ServerSocketChannel) key.channel();
+        FrameListener listener = (FrameListener) key.attachment();
+
+        SocketChannel client;
+        while ((client = server.accept()) != null) {
+            client.configureBlocking(false);
+            client.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            attach(client, new NioMessageHandler(client, this, name, listener), listener);
+        }
+    }
+
+    private void attach(SocketChannel channel, NioMessageHandler handler, FrameListener listener) {
+        try {
+            handler.attach(channel.register(selector, SelectionKey.OP_READ, handler));
+            if (listener != null) {
+                listener.onOpen(handler);
+            }
+        } catch (IOException e) {
+            erro("Erro ao registrar conexão no laço " + name + ": " + e.getMessage());
+            handler.close();
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (Exception e) {
+                erro("Erro ao executar tarefa no laço " + name + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void closeAll() {
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof NioMessageHandler handler) {
+                handler.close();
+            } else {
+                try {
+                    key.channel().close();
+                } catch (IOException e) {
+                    erro("Erro ao fechar canal do laço " + name + ": " + e.getMessage());
+                }
+            }
+        }
+        runTasks();
+        try {
+            selector.close();
+        } catch (IOException e) {
+            erro("Erro ao fechar o Selector do laço " + name + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+    }
+}
@@ -0,0 +1,349 @@
+package com.climate.datas.utils.common;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.climate.datas.utils.JsonSerializable;
+import com.climate.datas.utils.Loggable;
+import com.climate.datas.utils.common.interfaces.MessageHandler;
+import com.climate.datas.utils.drone.DatagramDrone;
+import com.climate.datas.utils.jfr.MessageSentEvent;
+
+/*
+ * MessageHandler não bloqueante sobre um SocketChannel registrado em um NioEventLoop.
+ *
+ * Cada mensagem é um frame [tamanho:int][UTF-8], escrito direto no buffer de
+ * escrita da conexão e enviado pelo laço quando o canal aceita escrita; várias
+ * mensagens pendentes saem juntas em um único write. Os frames lidos vão para o
+ * FrameListener (servidores) ou, sem listener, para uma fila consumida por
+ * receiveTextMessage/receiveJsonMessage (clientes).
+ *
+ * Quando o listener recusa um frame, a leitura da conexão é suspensa (OP_READ
+ * desligado) e o frame fica no buffer até resumeReading(); o laço continua
+ * atendendo as demais conexões.
+ */
+public class NioMessageHandler implements MessageHandler, JsonSerializable, Loggable {
+    public static final int MAX_FRAME = 1 << 20;                    // Maior frame aceito (1 MiB)
+    private static final int MAX_WRITE_BUFFER = 64 << 20;           // Limite do buffer de escrita pendente
+    private static final String CLOSED = new String("closed");      // Sentinela de fim de fluxo na fila
+
+    private final SocketChannel channel;
+    private final NioEventLoop loop;
+    private final String name;
+    private final NioEventLoop.FrameListener listener;
+    private final BlockingQueue<String> inbound = new LinkedBlockingQueue<>();
+    private final AtomicBoolean writeRequested = new AtomicBoolean(false);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    private ByteBuffer readBuffer = ByteBuffer.allocate(16 * 1024);  // Usado apenas pela thread do laço
+    private ByteBuffer writeBuffer = ByteBuffer.allocate(16 * 1024); // Protegido por this
+    private SelectionKey key;                                        // Definida na thread do laço
+    private volatile long pendingBytes = 0;                          // writeBuffer.position(), lido sem lock
+    private boolean readPaused = false;                              // Leitura suspensa pelo listener (thread do laço)
+    private volatile boolean closed = false;
+
+    NioMessageHandler(SocketChannel channel, NioEventLoop loop, String name, NioEventLoop.FrameListener listener) {
+        this.channel = channel;
+        this.loop = loop;
+        this.name = name;
+        this.listener = listener;
+    }
+
+    void attach(SelectionKey key) {
+        this.key = key;
+        synchronized (this) {
+            if (writeBuffer.position() > 0) {
+                writeRequested.set(true);
+                key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+            }
+        }
+    }
+
+    public void sendTextMessage(String message) {
+        enqueue(message);
+        requestWrite();
+
+        debug(() -> name + " enviou uma mensagem texto: " + message);
+    }
+
+    public void sendJsonMessage(Object message) {
+        MessageSentEvent event = new MessageSentEvent();
+        event.begin();
+        String jsonMessage = toJsonMessage(message);
+
+        enqueue(jsonMessage);
+        requestWrite();
+        trace(event, message, jsonMessage);
+        debug(() -> name + " enviou uma mensagem json: " + jsonMessage);
+    }
+
+    public void sendBatch(List<?> messages) {
+        if (messages == null || messages.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            for (Object message : messages) {
+                enqueue(toJsonMessage(message));
+            }
+        }
+        requestWrite();
+        debug(() -> name + " enviou um lote de " + messages.size() + " mensagens json");
+    }
+
+    // As escritas já são agrupadas pelo laço; flush apenas garante que uma escrita foi pedida
+    public void flush() {
+        requestWrite();
+    }
+
+    public String receiveTextMessage() {
+        try {
+            String frame = inbound.take();
+            if (frame == CLOSED) {
+                inbound.offer(CLOSED);
+                return null;
+            }
+            debug(() -> name + " recebeu uma mensagem texto: " + frame);
+            return frame;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    public <T> T receiveJsonMessage(Class<T> clas) {
+        String json = receiveTextMessage();
+        if (json == null || json.isEmpty()) {
+            return null;
+        }
+        try {
+            return JsonSerializable.objectMapper.readValue(json, clas);
+        } catch (IOException e) {
+            erro("Erro ao receber mensagem JSON: " + e);
+            return null;
+        }
+    }
+
+    // Frames aguardando o canal aceitar escrita: cresce quando o destino para de ler
+    public long getPendingBytes() {
+        return pendingBytes;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        drainOnClose();
+        if (loop.inLoop() || !loop.isRunning()) {
+            closeChannel();
+        } else {
+            loop.execute(this::closeChannel);
+        }
+    }
+
+    // Codifica a mensagem direto no buffer de escrita, reservando 4 bytes para o tamanho
+    private synchronized void enqueue(String message) {
+        if (closed) {
+            erro("O canal de " + name + " está fechado. Mensagem descartada.");
+            return;
+        }
+        CharBuffer chars = CharBuffer.wrap(message);
+        while (true) {
+            int start = writeBuffer.position();
+            if (writeBuffer.remaining() > 4) {
+                writeBuffer.position(start + 4);
+                encoder.reset();
+                CoderResult result = encoder.encode(chars, writeBuffer, true);
+                if (!result.isOverflow()) {
+                    result = encoder.flush(writeBuffer);
+                }
+                if (!result.isOverflow()) {
+                    int length = writeBuffer.position() - start - 4;
+                    if (length > MAX_FRAME) {
+                        writeBuffer.position(start);
+                        throw new IllegalArgumentException("Mensagem maior que o frame máximo de " + MAX_FRAME + " bytes.");
+                    }
+                    writeBuffer.putInt(start, length);
+                    pendingBytes = writeBuffer.position();
+                    return;
+                }
+                writeBuffer.position(start);
+                chars.rewind();
+            }
+            growWriteBuffer();
+        }
+    }
+
+    private void growWriteBuffer() {
+        int capacity = writeBuffer.capacity() * 2;
+        if (capacity > MAX_WRITE_BUFFER) {
+            throw new IllegalStateException("Buffer de escrita de " + name + " cheio: o destino não está consumindo as mensagens.");
+        }
+        ByteBuffer bigger = ByteBuffer.allocate(capacity);
+        writeBuffer.flip();
+        bigger.put(writeBuffer);
+        writeBuffer = bigger;
+    }
+
+    private void requestWrite() {
+        if (!closed && writeRequested.compareAndSet(false, true)) {
+            loop.execute(() -> {
+                if (key != null && key.isValid()) {
+                    key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                }
+            });
+        }
+    }
+
+    void onWritable() throws IOException {
+        synchronized (this) {
+            writeBuffer.flip();
+            channel.write(writeBuffer);
+            writeBuffer.compact();
+            pendingBytes = writeBuffer.position();
+            if (writeBuffer.position() == 0) {
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+                writeRequested.set(false);
+            }
+        }
+    }
+
+    void onReadable() throws IOException {
+        int read = channel.read(readBuffer);
+        if (read < 0) {
+            close();
+            return;
+        }
+        deliverFrames();
+    }
+
+    // Volta a ler a conexão depois de um frame recusado; pode ser chamado de qualquer thread
+    public void resumeReading() {
+        loop.execute(() -> {
+            if (!readPaused || closed || key == null || !key.isValid()) {
+                return;
+            }
+            readPaused = false;
+            key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+            // Frames que já estavam no buffer não geram novo evento de leitura
+            deliverFrames();
+        });
+    }
+
+    private void deliverFrames() {
+        readBuffer.flip();
+        int needed = 0;
+        while (readBuffer.remaining() >= 4) {
+            int length = readBuffer.getInt(readBuffer.position());
+            if (length < 0 || length > MAX_FRAME) {
+                erro(name + " recebeu um frame inválido de " + length + " bytes. Fechando conexão.");
+                close();
+                return;
+            }
+            if (readBuffer.remaining() < 4 + length) {
+                needed = 4 + length;
+                break;
+            }
+            String frame = new String(readBuffer.array(), readBuffer.arrayOffset() + readBuffer.position() + 4, length, StandardCharsets.UTF_8);
+            if (!deliver(frame)) {
+                // Frame recusado: fica no buffer e a conexão para de ser lida até resumeReading()
+                readPaused = true;
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+                break;
+            }
+            readBuffer.position(readBuffer.position() + 4 + length);
+        }
+
+        if (needed > readBuffer.capacity()) {
+            ByteBuffer bigger = ByteBuffer.allocate(needed);
+            bigger.put(readBuffer);
+            readBuffer = bigger;
+        } else {
+            readBuffer.compact();
+        }
+    }
+
+    private boolean deliver(String frame) {
+        if (listener == null) {
+            inbound.offer(frame);
+            return true;
+        }
+        try {
+            return listener.onFrame(this, frame);
+        } catch (Exception e) {
+            erro("Erro ao tratar mensagem recebida por " + name + ": " + e.getMessage());
+            return true;
+        }
+    }
+
+    // Tenta enviar o que estiver pendente antes de fechar, sem esperar indefinidamente por um destino lento
+    private synchronized void drainOnClose() {
+        if (writeBuffer.position() == 0 || !channel.isOpen()) {
+            return;
+        }
+        try {
+            writeBuffer.flip();
+            for (int attempts = 0; writeBuffer.hasRemaining() && attempts < 100; attempts++) {
+                if (channel.write(writeBuffer) == 0 && !loop.inLoop()) {
+                    Thread.sleep(1);
+                }
+            }
+        } catch (IOException e) {
+            erro("Erro ao enviar mensagens pendentes de " + name + ": " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            writeBuffer.clear();
+            pendingBytes = 0;
+        }
+    }
+
+    private void closeChannel() {
+        try {
+            if (key != null) {
+                key.cancel();
+            }
+            channel.close();
+            message("O " + name + " fechou o canal com sucesso!");
+        } catch (IOException e) {
+            erro("Erro ao fechar o canal de " + name + ": " + e.getMessage());
+        } finally {
+            inbound.offer(CLOSED);
+            if (listener != null) {
+                listener.onClose(this);
+            }
+        }
+    }
+
+    // Evento JFR do envio (Communicator.sendJsonMessage); o tamanho é o do JSON, sem o enquadramento
+    private void trace(MessageSentEvent event, Object message, String jsonMessage) {
+        if (event.shouldCommit()) {
+            event.set(message instanceof DatagramDrone drone ? drone : null, jsonMessage.length());
+            event.connection = name;
+            event.commit();
+        }
+    }
+
+    private String toJsonMessage(Object message) {
+        return message == null ? "null"
+                : (message instanceof JsonSerializable ? ((JsonSerializable) message).toJson()
+                : String.valueOf(message));
+    }
+}
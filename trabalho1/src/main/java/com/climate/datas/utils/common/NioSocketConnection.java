@@ -0,0 +1,106 @@
+package com.climate.datas.utils.common;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.SocketChannel;
+
+import com.climate.datas.utils.Loggable;
+import com.climate.datas.utils.common.interfaces.SocketConnection;
+import lombok.Getter;
+import lombok.Setter;
+
+/*
+ * Conexão TCP baseada em SocketChannel. O connect é feito de forma bloqueante
+ * e o canal é colocado em modo não bloqueante logo em seguida, para ser
+ * registrado em um NioEventLoop pelo NioMessageHandler.
+ */
+@Getter
+public class NioSocketConnection implements SocketConnection, Loggable {
+    @Setter
+    private int port;
+    @Setter
+    private String host;
+    @Setter
+    private String name;
+    private SocketChannel channel;
+
+    public NioSocketConnection(String name) {
+        this.name = name;
+    }
+
+    public NioSocketConnection(SocketChannel channel, String name) {
+        this.channel = channel;
+        this.name = name;
+        try {
+            InetSocketAddress remote = (InetSocketAddress) channel.getRemoteAddress();
+            host = remote.getAddress().getHostAddress();
+            port = remote.getPort();
+        } catch (IOException e) {
+            erro("Erro ao obter o endereço remoto de " + name + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void connect() {
+        if (isConnected()) {
+            warn(name + " já está conectado a " + host + ":" + port + ". Desconectando antes de conectar...");
+            disconnect();
+        }
+
+        try {
+            channel = SocketChannel.open(new InetSocketAddress(host, port));
+            channel.configureBlocking(false);
+
+            info(name + " conectado (selector) a " + host + ":" + port);
+        } catch (Exception e) {
+            channel = null;
+            erro("Erro ao tentar conectar " + name + " a " + host + ":" + port);
+        }
+    }
+
+    @Override
+    public void connect(String host, int port) {
+        this.host = host;
+        this.port = port;
+        connect();
+    }
+
+    @Override
+    public synchronized void disconnect() {
+        try {
+            if (channel != null && channel.isOpen()) {
+                channel.close();
+                info("Conexão de " + name + " fechada com o " + host + ".");
+            }
+        } catch (IOException e) {
+            erro("Erro ao " + name + " tentar desconectar: " + e.getMessage());
+        } finally {
+            channel = null;
+        }
+    }
+
+    @Override
+    public boolean isConnected() {
+        SocketChannel current = channel;
+        return current != null && current.isOpen() && current.isConnected();
+    }
+
+    @Override
+    public boolean isClosed() {
+        SocketChannel current = channel;
+        return current == null || !current.isOpen();
+    }
+
+    // O laço de eventos lê o canal continuamente e o fecha no fim de fluxo ou em erro de escrita
+    @Override
+    public boolean probe() {
+        return isConnected();
+    }
+
+    @Override
+    public Socket getSocket() {
+        SocketChannel current = channel;
+        return current == null ? null : current.socket();
+    }
+}
@@ -0,0 +1,78 @@
+package com.climate.datas.utils.common;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.climate.datas.utils.Loggable;
+
+/*
+ * Latências por etapa de um papel (DataCenter, Server, User), publicadas como
+ * MXBeans em com.climate.datas:type=<papel>,name=<instância>,hop=<etapa>.
+ *
+ * Uma instância registrada de novo com o mesmo nome substitui a anterior; close()
+ * remove os MXBeans do papel. Falhas de registro só desativam a visão JMX: as
+ * medições continuam disponíveis por getHops().
+ */
+public class RoleMetrics implements AutoCloseable, Loggable {
+    private static final String DOMAIN = "com.climate.datas";
+
+    private final String role;
+    private final String name;
+    private final List<HopLatency> hops = new CopyOnWriteArrayList<>();
+    private final List<ObjectName> registered = new CopyOnWriteArrayList<>();
+
+    public RoleMetrics(String role, String name) {
+        this.role = role;
+        this.name = name;
+    }
+
+    public HopLatency hop(String hop) {
+        HopLatency latency = new HopLatency(hop);
+        hops.add(latency);
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(DOMAIN + ":type=" + role + ",name=" + name + ",hop=" + hop);
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(latency, objectName);
+            registered.add(objectName);
+        } catch (JMException e) {
+            erro("Não foi possível publicar a latência " + hop + " de " + name + " no JMX: " + e.getMessage());
+        }
+        return latency;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<HopLatency> getHops() {
+        return List.copyOf(hops);
+    }
+
+    @Override
+    public void close() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName objectName : registered) {
+            try {
+                if (server.isRegistered(objectName)) {
+                    server.unregisterMBean(objectName);
+                }
+            } catch (JMException e) {
+                erro("Erro ao remover " + objectName + " do JMX: " + e.getMessage());
+            }
+        }
+        registered.clear();
+    }
+
+    @Override
+    public String toString() {
+        return name + " " + hops;
+    }
+}
@@ -0,0 +1,20 @@
+package com.climate.datas.utils.common.interfaces;
+
+// Visão JMX da latência de uma etapa (hop) do caminho de uma leitura; tempos em microssegundos
+public interface HopLatencyMXBean {
+    long getCount();
+
+    double getRatePerSecond();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaxMicros();
+
+    void reset();
+}
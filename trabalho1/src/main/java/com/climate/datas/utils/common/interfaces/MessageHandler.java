@@ -1,13 +1,23 @@
 package com.climate.datas.utils.common.interfaces;
 
+import java.util.List;
+
 public interface MessageHandler {
     void sendTextMessage(String message);
 
     void sendJsonMessage(Object message);
 
+    void sendBatch(List<?> messages);
+
+    void flush();
+
+    // Bytes aceitos para envio e ainda não entregues ao socket
+    long getPendingBytes();
+
+    // null quando a conexão foi encerrada ou a leitura falhou
     String receiveTextMessage();
 
     <T> T receiveJsonMessage(Class<T> clas);
 
     void close();
-}
\ No newline at end of file
+}
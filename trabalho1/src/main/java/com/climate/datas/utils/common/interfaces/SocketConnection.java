@@ -13,6 +13,9 @@ public interface SocketConnection {
 
     boolean isClosed();
 
+    // Verifica o outro lado (fim de fluxo ou erro), e não só o estado local do socket; false fecha a conexão
+    boolean probe();
+
     Socket getSocket();
 
     String getHost();
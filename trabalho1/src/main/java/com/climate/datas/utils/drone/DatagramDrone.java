@@ -1,37 +1,127 @@
 package com.climate.datas.utils.drone;
 
+import com.climate.datas.utils.ClimateData;
 import com.climate.datas.utils.JsonSerializable;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 import java.net.DatagramPacket;
+import java.nio.ByteBuffer;
 
 @Data
 @NoArgsConstructor
 public class DatagramDrone implements JsonSerializable {
     private DroneId droneId;
     private String data;
+    private int member;                     // Drone dentro da região quando há vários (frota simulada; 0: drone único)
+    private long epoch;                     // Momento em que o drone ligou (epoch em ms, 0: desconhecido): separa as execuções
+    private long sequence;                  // Número de sequência da leitura no drone, dentro da época
+    private long timestamp;                 // Momento da coleta (epoch em ms): origem das latências por etapa
+
+    // Valores numéricos da leitura, presentes quando ela veio do drone ou do formato binário
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean hasValues;
+    @JsonIgnore
+    private double pressao;
+    @JsonIgnore
+    private double radiacao;
+    @JsonIgnore
+    private double temperatura;
+    @JsonIgnore
+    private double umidade;
 
     public DatagramDrone(DroneId droneId, String data) {
         this.droneId = droneId;
         this.data = data;
     }
 
+    public DatagramDrone(DroneId droneId, long sequence, double pressao, double radiacao, double temperatura, double umidade) {
+        setValues(droneId, sequence, System.currentTimeMillis(), pressao, radiacao, temperatura, umidade);
+    }
+
+    public void setValues(DroneId droneId, long sequence, long timestamp,
+                          double pressao, double radiacao, double temperatura, double umidade) {
+        this.droneId = droneId;
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.pressao = pressao;
+        this.radiacao = radiacao;
+        this.temperatura = temperatura;
+        this.umidade = umidade;
+        this.hasValues = true;
+        this.data = null;
+    }
+
+    public boolean hasValues() {
+        return hasValues;
+    }
+
+    public ClimateData toClimateData() {
+        return hasValues ? new ClimateData(temperatura, umidade, pressao, radiacao) : null;
+    }
+
+    // O texto no formato da região só é montado quando alguém pede por ele
+    public String getData() {
+        if (data == null && hasValues) {
+            data = RegionFormat.fromDroneId(droneId).format(new String[]{
+                    String.valueOf(pressao), String.valueOf(radiacao), String.valueOf(temperatura), String.valueOf(umidade)
+            });
+        }
+        return data;
+    }
+
     public byte[] toBytes() {
         return this.toJson().getBytes(java.nio.charset.StandardCharsets.UTF_8);
     }
 
+    public byte[] toBinary() {
+        ByteBuffer buffer = ByteBuffer.allocate(DroneCodec.SIZE);
+        DroneCodec.encode(this, buffer);
+        return buffer.array();
+    }
+
+    public void writeBinary(ByteBuffer buffer) {
+        DroneCodec.encode(this, buffer);
+    }
+
     public static DatagramDrone fromBytes(byte[] bytes, int length) {
-        String json = new String(bytes, 0, length, java.nio.charset.StandardCharsets.UTF_8);
+        return fromBytes(bytes, 0, length);
+    }
+
+    // Detecta o formato pelo primeiro byte: binário (DroneCodec) ou JSON
+    public static DatagramDrone fromBytes(byte[] bytes, int offset, int length) {
+        if (length > 0 && DroneCodec.isBinary(bytes[offset])) {
+            return DroneCodec.decode(ByteBuffer.wrap(bytes, offset, length), new DatagramDrone());
+        }
+        String json = new String(bytes, offset, length, java.nio.charset.StandardCharsets.UTF_8);
         return JsonSerializable.fromJson(json, DatagramDrone.class);
     }
 
     public static DatagramDrone fromPacket(DatagramPacket packet) {
-        return fromBytes(packet.getData(), packet.getLength());
+        return fromBytes(packet.getData(), packet.getOffset(), packet.getLength());
+    }
+
+    // Lê o conteúdo entre position e limit do buffer (já invertido com flip)
+    public static DatagramDrone fromBuffer(ByteBuffer buffer) {
+        if (buffer.hasRemaining() && DroneCodec.isBinary(buffer.get(buffer.position()))) {
+            return DroneCodec.decode(buffer, new DatagramDrone());
+        }
+        if (buffer.hasArray()) {
+            return fromBytes(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return fromBytes(bytes, bytes.length);
     }
 
     @Override
     public String toString() {
-        return "Drone ID: " + droneId + ", Dados: " + data;
+        return "Drone ID: " + droneId + ", Dados: " + getData();
     }
 }
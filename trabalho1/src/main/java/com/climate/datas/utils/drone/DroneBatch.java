@@ -0,0 +1,77 @@
+package com.climate.datas.utils.drone;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/*
+ * Várias leituras binárias (DroneCodec) em um único datagrama.
+ *
+ * Layout (big-endian):
+ *   [magic/versão:1][quantidade:2][leitura DroneCodec:62] x quantidade
+ *
+ * O magic tem nibble alto diferente do DroneCodec e do '{' do JSON, então o
+ * receptor identifica lote, leitura avulsa ou JSON olhando só o primeiro byte.
+ */
+public final class DroneBatch {
+    public static final byte MAGIC = (byte) 0xC1;       // Lote binário, versão 1
+    private static final int MAGIC_MASK = 0xF0;
+    public static final int HEADER_SIZE = 1 + 2;
+    public static final int MAX_DATAGRAM = 8192;        // Maior datagrama de leituras aceito pelos receptores dos drones
+
+    private DroneBatch() {}
+
+    public static boolean isBatch(byte first) {
+        return (first & MAGIC_MASK) == (MAGIC & MAGIC_MASK);
+    }
+
+    // Bytes de cada leitura de um datagrama: as de um lote têm o tamanho fixo do DroneCodec
+    public static int readingSize(byte first, int length) {
+        return length > 0 && isBatch(first) ? DroneCodec.SIZE : length;
+    }
+
+    // Quantas leituras cabem em um datagrama de mtu bytes
+    public static int capacity(int mtu) {
+        return Math.max(0, (mtu - HEADER_SIZE) / DroneCodec.SIZE);
+    }
+
+    // Reserva o cabeçalho na posição atual; a quantidade é preenchida por finish()
+    public static void begin(ByteBuffer buffer) {
+        buffer.put(MAGIC).putShort((short) 0);
+    }
+
+    public static void finish(ByteBuffer buffer, int start, int count) {
+        buffer.putShort(start + 1, (short) count);
+    }
+
+    /*
+     * Entrega cada leitura do conteúdo entre position e limit, seja um lote,
+     * uma leitura binária avulsa ou um JSON. Retorna quantas foram entregues.
+     */
+    public static int forEach(ByteBuffer buffer, Consumer<DatagramDrone> consumer) {
+        if (!buffer.hasRemaining()) {
+            return 0;
+        }
+        if (!isBatch(buffer.get(buffer.position()))) {
+            consumer.accept(DatagramDrone.fromBuffer(buffer));
+            return 1;
+        }
+        try {
+            byte magic = buffer.get();
+            if (magic != MAGIC) {
+                throw new IllegalArgumentException("Versão do lote binário não suportada: " + (magic & 0x0F));
+            }
+            int count = buffer.getShort() & 0xFFFF;
+            for (int i = 0; i < count; i++) {
+                consumer.accept(DroneCodec.decode(buffer, new DatagramDrone()));
+            }
+            return count;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Lote binário truncado.", e);
+        }
+    }
+
+    public static int forEach(byte[] bytes, int offset, int length, Consumer<DatagramDrone> consumer) {
+        return forEach(ByteBuffer.wrap(bytes, offset, length), consumer);
+    }
+}
@@ -0,0 +1,45 @@
+package com.climate.datas.utils.drone;
+
+/*
+ * Agrupamento de leituras em um único datagrama (DroneBatch) do lado do drone.
+ *
+ * O lote é enviado quando a próxima leitura não caberia em mtu bytes ou quando
+ * a primeira leitura dele espera lingerMillis (orçamento de latência).
+ * Pode ser ativado com -Ddrone.batch=mtu,milissegundos (ex.: 1400,50); o
+ * gerador de carga usa -Dfleet.batch com o mesmo formato.
+ */
+public record DroneBatchPolicy(int mtu, long lingerMillis) {
+    public static final DroneBatchPolicy DEFAULT = new DroneBatchPolicy(1400, 50);
+
+    public DroneBatchPolicy {
+        if (mtu < DroneBatch.HEADER_SIZE + DroneCodec.SIZE || mtu > DroneBatch.MAX_DATAGRAM) {
+            throw new IllegalArgumentException("MTU do lote deve estar entre " + (DroneBatch.HEADER_SIZE + DroneCodec.SIZE)
+                    + " e " + DroneBatch.MAX_DATAGRAM + " bytes.");
+        }
+        if (lingerMillis <= 0) {
+            throw new IllegalArgumentException("O orçamento de latência do lote deve ser positivo.");
+        }
+    }
+
+    public int capacity() {
+        return DroneBatch.capacity(mtu);
+    }
+
+    // Retorna null quando a propriedade não foi definida (uma leitura por datagrama)
+    public static DroneBatchPolicy fromProperty(String property) {
+        String value = System.getProperty(property);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        if (value.equalsIgnoreCase("default") || value.equalsIgnoreCase("true")) {
+            return DEFAULT;
+        }
+        String[] parts = value.split(",");
+        try {
+            return new DroneBatchPolicy(Integer.parseInt(parts[0].trim()),
+                    parts.length > 1 ? Long.parseLong(parts[1].trim()) : DEFAULT.lingerMillis());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido para " + property + ": " + value, e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.climate.datas.utils.drone;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/*
+ * Codec binário de layout fixo para o DatagramDrone.
+ *
+ * Layout (big-endian, 62 bytes):
+ *   [magic/versão:1][ordinal do DroneId:1][membro:4][época:8][sequência:8][timestamp:8]
+ *   [pressao:8][radiacao:8][temperatura:8][umidade:8]
+ *
+ * O primeiro byte nunca é '{', então os receptores distinguem binário de JSON
+ * apenas olhando para ele. O nibble alto identifica o formato e o baixo a versão.
+ */
+public final class DroneCodec {
+    public static final byte MAGIC = (byte) 0xB3;       // Formato binário, versão 3 (com o membro e a época do drone)
+    private static final int MAGIC_MASK = 0xF0;
+    public static final int SIZE = 1 + 1 + 4 + 8 + 8 + 8 + 4 * 8;
+
+    private DroneCodec() {}
+
+    public static boolean isBinary(byte first) {
+        return (first & MAGIC_MASK) == (MAGIC & MAGIC_MASK);
+    }
+
+    // Escreve a leitura a partir da posição atual do buffer, sem alocar
+    public static void encode(DatagramDrone drone, ByteBuffer buffer) {
+        if (!drone.hasValues()) {
+            throw new IllegalArgumentException("DatagramDrone sem valores numéricos não pode ser codificado em binário.");
+        }
+        buffer.put(MAGIC)
+                .put((byte) drone.getDroneId().getOrdinal())
+                .putInt(drone.getMember())
+                .putLong(drone.getEpoch())
+                .putLong(drone.getSequence())
+                .putLong(drone.getTimestamp())
+                .putDouble(drone.getPressao())
+                .putDouble(drone.getRadiacao())
+                .putDouble(drone.getTemperatura())
+                .putDouble(drone.getUmidade());
+    }
+
+    // Lê uma leitura a partir da posição atual do buffer para dentro de target, sem alocar
+    public static DatagramDrone decode(ByteBuffer buffer, DatagramDrone target) {
+        try {
+            byte magic = buffer.get();
+            if (magic != MAGIC) {
+                throw new IllegalArgumentException("Versão do formato binário não suportada: " + (magic & 0x0F));
+            }
+            DroneId droneId = DroneId.fromOrdinal(buffer.get());
+            int member = buffer.getInt();
+            long epoch = buffer.getLong();
+            long sequence = buffer.getLong();
+            long timestamp = buffer.getLong();
+            target.setValues(droneId, sequence, timestamp,
+                    buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+            target.setMember(member);
+            target.setEpoch(epoch);
+            return target;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Datagrama binário truncado.", e);
+        }
+    }
+}
@@ -10,8 +10,27 @@ public enum DroneId implements JsonSerializable {
     final String value;
     final int ordinal;
 
+    private static final DroneId[] BY_ORDINAL = {NORTE, SUL, LESTE, OESTE};
+
     DroneId(String value, int ordinal) {
         this.value = value;
         this.ordinal = ordinal;
     }
-}
\ No newline at end of file
+
+    // Aceita tanto o valor ("Norte") quanto o nome da constante ("NORTE")
+    public static DroneId fromValue(String value) {
+        for (DroneId droneId : BY_ORDINAL) {
+            if (droneId.value.equalsIgnoreCase(value) || droneId.name().equalsIgnoreCase(value)) {
+                return droneId;
+            }
+        }
+        throw new IllegalArgumentException("Drone desconhecido: " + value);
+    }
+
+    public static DroneId fromOrdinal(int ordinal) {
+        if (ordinal < 0 || ordinal >= BY_ORDINAL.length) {
+            throw new IllegalArgumentException("Ordinal de drone inválido: " + ordinal);
+        }
+        return BY_ORDINAL[ordinal];
+    }
+}
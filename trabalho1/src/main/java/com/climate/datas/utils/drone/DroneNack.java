@@ -0,0 +1,56 @@
+package com.climate.datas.utils.drone;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.function.LongConsumer;
+
+/*
+ * Pedido de retransmissão (NACK) enviado pelo DataCenter ao drone.
+ *
+ * Layout (big-endian):
+ *   [magic/versão:1][ordinal do DroneId:1][quantidade:2][sequência:8] x quantidade
+ */
+public final class DroneNack {
+    public static final byte MAGIC = (byte) 0xD1;       // NACK, versão 1
+    private static final int MAGIC_MASK = 0xF0;
+    public static final int HEADER_SIZE = 1 + 1 + 2;
+    public static final int MAX_SEQUENCES = 128;        // Limite por datagrama (~1 KiB)
+
+    private DroneNack() {}
+
+    public static boolean isNack(byte first) {
+        return (first & MAGIC_MASK) == (MAGIC & MAGIC_MASK);
+    }
+
+    public static int size(int count) {
+        return HEADER_SIZE + count * 8;
+    }
+
+    public static void encode(DroneId droneId, long[] sequences, int count, ByteBuffer buffer) {
+        if (count > MAX_SEQUENCES) {
+            throw new IllegalArgumentException("NACK com mais de " + MAX_SEQUENCES + " sequências.");
+        }
+        buffer.put(MAGIC).put((byte) droneId.getOrdinal()).putShort((short) count);
+        for (int i = 0; i < count; i++) {
+            buffer.putLong(sequences[i]);
+        }
+    }
+
+    // Entrega cada sequência pedida e retorna o drone a quem o NACK se destina
+    public static DroneId decode(ByteBuffer buffer, LongConsumer sequences) {
+        try {
+            byte magic = buffer.get();
+            if (magic != MAGIC) {
+                throw new IllegalArgumentException("Versão do NACK não suportada: " + (magic & 0x0F));
+            }
+            DroneId droneId = DroneId.fromOrdinal(buffer.get());
+            int count = buffer.getShort() & 0xFFFF;
+            for (int i = 0; i < count; i++) {
+                sequences.accept(buffer.getLong());
+            }
+            return droneId;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("NACK truncado.", e);
+        }
+    }
+}
@@ -5,16 +5,22 @@ import lombok.Getter;
 
 @Getter
 public enum RegionFormat {
-    NORTE("Norte", values -> String.join("-", values)),
-    SUL("Sul", values -> "(" + String.join(";", values) + ")"),
-    LESTE("Leste", values -> "{" + String.join(",", values) + "}"),
-    OESTE("Oeste", values -> String.join("#", values));
+    NORTE("Norte", '-', '\0', '\0', values -> String.join("-", values)),
+    SUL("Sul", ';', '(', ')', values -> "(" + String.join(";", values) + ")"),
+    LESTE("Leste", ',', '{', '}', values -> "{" + String.join(",", values) + "}"),
+    OESTE("Oeste", '#', '\0', '\0', values -> String.join("#", values));
 
     private final String value;
+    private final char separator;       // Separador entre os valores
+    private final char open;            // Delimitador inicial ('\0' quando não há)
+    private final char close;           // Delimitador final ('\0' quando não há)
     private final DataFormatter formatter;
 
-    RegionFormat(String value, DataFormatter formatter) {
+    RegionFormat(String value, char separator, char open, char close, DataFormatter formatter) {
         this.value = value;
+        this.separator = separator;
+        this.open = open;
+        this.close = close;
         this.formatter = formatter;
     }
 
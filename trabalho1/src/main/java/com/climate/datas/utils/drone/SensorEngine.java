@@ -0,0 +1,89 @@
+package com.climate.datas.utils.drone;
+
+import java.util.SplittableRandom;
+
+/*
+ * Motor de geração das leituras dos drones.
+ *
+ * Toda a configuração por região fica em arrays indexados pelo ordinal do
+ * DroneId e pela grandeza (na ordem do DatagramDrone: pressão, radiação,
+ * temperatura, umidade), e cada drone tem sua própria SplittableRandom
+ * derivada da semente. Com a mesma semente, o mesmo modelo e os mesmos
+ * instantes a sequência de leituras é sempre a mesma, e gerar uma leitura
+ * não aloca. Não é thread-safe: cada thread geradora usa o seu motor.
+ *
+ * A semente pode ser fixada com -Ddrone.seed.
+ */
+public class SensorEngine {
+    public static final int PRESSAO = 0, RADIACAO = 1, TEMPERATURA = 2, UMIDADE = 3;
+    public static final int SENSORS = 4;
+
+    // Faixas por região (ordinal do DroneId) e grandeza
+    private static final Range[][] RANGES = {
+            /* NORTE */ {new Range(950, 1000), new Range(800, 1200), new Range(30, 40), new Range(70, 90)},
+            /* SUL   */ {new Range(1000, 1050), new Range(400, 800), new Range(10, 20), new Range(60, 80)},
+            /* LESTE */ {new Range(970, 1030), new Range(600, 1000), new Range(25, 35), new Range(50, 70)},
+            /* OESTE */ {new Range(980, 1020), new Range(500, 900), new Range(20, 30), new Range(55, 75)},
+    };
+
+    private final SensorModel model;
+    private final SensorGenerator[][] generators;   // [drone][grandeza]
+    private final double[][] state;                 // Último valor gerado, [drone][grandeza]
+    private final SplittableRandom[] randoms;       // Fonte aleatória de cada drone
+
+    public SensorEngine(SensorModel model, long seed) {
+        this.model = model;
+        int drones = DroneId.values().length;
+        this.generators = new SensorGenerator[drones][SENSORS];
+        this.state = new double[drones][SENSORS];
+        this.randoms = new SplittableRandom[drones];
+
+        SplittableRandom root = new SplittableRandom(seed);
+        for (int drone = 0; drone < drones; drone++) {
+            randoms[drone] = root.split();
+            for (int sensor = 0; sensor < SENSORS; sensor++) {
+                generators[drone][sensor] = model.create(RANGES[drone][sensor]);
+                state[drone][sensor] = Double.NaN;
+            }
+        }
+    }
+
+    public static SensorEngine fromProperties() {
+        return new SensorEngine(SensorModel.fromProperty(), Long.getLong("drone.seed", System.nanoTime()));
+    }
+
+    public static Range range(DroneId droneId, int sensor) {
+        return RANGES[droneId.getOrdinal()][sensor];
+    }
+
+    public SensorModel getModel() {
+        return model;
+    }
+
+    // Gera a próxima leitura do drone em out (pressão, radiação, temperatura, umidade), com duas casas decimais
+    public void next(DroneId droneId, long timeMillis, double[] out) {
+        int drone = droneId.getOrdinal();
+        SplittableRandom random = randoms[drone];
+        double[] last = state[drone];
+        SensorGenerator[] droneGenerators = generators[drone];
+        for (int sensor = 0; sensor < SENSORS; sensor++) {
+            double value = droneGenerators[sensor].next(last[sensor], timeMillis, random);
+            last[sensor] = value;
+            out[sensor] = Math.round(value * 100) / 100.0;
+        }
+    }
+
+    // Preenche target com a próxima leitura, sem alocar
+    public void fill(DatagramDrone target, DroneId droneId, long sequence, long timeMillis) {
+        int drone = droneId.getOrdinal();
+        SplittableRandom random = randoms[drone];
+        double[] last = state[drone];
+        SensorGenerator[] droneGenerators = generators[drone];
+        for (int sensor = 0; sensor < SENSORS; sensor++) {
+            last[sensor] = droneGenerators[sensor].next(last[sensor], timeMillis, random);
+        }
+        target.setValues(droneId, sequence, timeMillis,
+                Math.round(last[PRESSAO] * 100) / 100.0, Math.round(last[RADIACAO] * 100) / 100.0,
+                Math.round(last[TEMPERATURA] * 100) / 100.0, Math.round(last[UMIDADE] * 100) / 100.0);
+    }
+}
@@ -0,0 +1,12 @@
+package com.climate.datas.utils.drone;
+
+import java.util.SplittableRandom;
+
+/*
+ * Gerador primitivo de uma grandeza: recebe o valor anterior, o instante da
+ * coleta e a fonte aleatória do drone, e devolve o próximo valor sem boxing.
+ */
+@FunctionalInterface
+public interface SensorGenerator {
+    double next(double previous, long timeMillis, SplittableRandom random);
+}
@@ -0,0 +1,82 @@
+package com.climate.datas.utils.drone;
+
+import java.util.SplittableRandom;
+
+import lombok.Getter;
+
+/*
+ * Modelos de geração das leituras dos sensores dentro da faixa da região.
+ *
+ * UNIFORM: valor independente e uniforme na faixa (comportamento original).
+ * RANDOM_WALK: parte do meio da faixa e anda em passos gaussianos de 2% da
+ *   faixa, refletindo nos limites.
+ * DIURNAL: ciclo diário (senoide de 24 h com pico às 14 h) em torno do meio
+ *   da faixa, mais um pequeno ruído.
+ * SPIKY: DIURNAL com picos raros (1% das leituras) de até 25% da faixa, que
+ *   podem sair dela, para exercitar valores anômalos.
+ *
+ * Pode ser escolhido com -Ddrone.model=uniform|walk|diurnal|spiky.
+ */
+@Getter
+public enum SensorModel {
+    UNIFORM("uniform"), RANDOM_WALK("walk"), DIURNAL("diurnal"), SPIKY("spiky");
+
+    private static final double DAY_MILLIS = 24 * 60 * 60 * 1000.0;
+    private static final double PEAK_MILLIS = 14 * 60 * 60 * 1000.0;
+
+    private final String value;
+
+    SensorModel(String value) {
+        this.value = value;
+    }
+
+    public SensorGenerator create(Range range) {
+        double min = range.min();
+        double span = range.max() - range.min();
+        double middle = min + span / 2;
+        return switch (this) {
+            case UNIFORM -> (_, _, random) -> min + random.nextDouble() * span;
+            case RANDOM_WALK -> (previous, _, random) -> {
+                double next = (Double.isNaN(previous) ? middle : previous) + gaussian(random) * span * 0.02;
+                // Reflete nos limites para continuar dentro da faixa
+                if (next < min) {
+                    next = min + (min - next);
+                }
+                if (next > range.max()) {
+                    next = range.max() - (next - range.max());
+                }
+                return Math.clamp(next, min, range.max());
+            };
+            case DIURNAL -> (_, time, random) -> diurnal(middle, span, time, random);
+            case SPIKY -> (_, time, random) -> {
+                double base = diurnal(middle, span, time, random);
+                return random.nextDouble() < 0.01 ? base + (random.nextDouble() * 2 - 1) * span * 0.25 : base;
+            };
+        };
+    }
+
+    private static double diurnal(double middle, double span, long timeMillis, SplittableRandom random) {
+        double phase = 2 * Math.PI * ((timeMillis - PEAK_MILLIS) % DAY_MILLIS) / DAY_MILLIS;
+        return middle + Math.cos(phase) * span * 0.4 + gaussian(random) * span * 0.02;
+    }
+
+    // Normal padrão pelo método de Box-Muller (uma das duas amostras é descartada)
+    private static double gaussian(SplittableRandom random) {
+        double u1 = 1.0 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+    }
+
+    public static SensorModel fromValue(String value) {
+        for (SensorModel model : SensorModel.values()) {
+            if (model.getValue().equalsIgnoreCase(value)) {
+                return model;
+            }
+        }
+        return UNIFORM;
+    }
+
+    public static SensorModel fromProperty() {
+        return fromValue(System.getProperty("drone.model", UNIFORM.getValue()));
+    }
+}
@@ -0,0 +1,31 @@
+package com.climate.datas.utils.drone;
+
+import lombok.Getter;
+
+/*
+ * Formato usado pelos drones para enviar as leituras ao DataCenter.
+ * Pode ser escolhido com a propriedade -Ddrone.wire=binary|json.
+ */
+@Getter
+public enum WireFormat {
+    JSON("json"), BINARY("binary");
+
+    private final String value;
+
+    WireFormat(String value) {
+        this.value = value;
+    }
+
+    public static WireFormat fromValue(String value) {
+        for (WireFormat format : WireFormat.values()) {
+            if (format.getValue().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        return BINARY;
+    }
+
+    public static WireFormat fromProperty() {
+        return fromValue(System.getProperty("drone.wire", BINARY.getValue()));
+    }
+}
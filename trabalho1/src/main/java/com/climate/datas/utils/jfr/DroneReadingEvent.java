@@ -0,0 +1,14 @@
+package com.climate.datas.utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Tratamento de uma leitura no DataCenter: verificação da sequência, escolha do servidor e envio
+@Name("com.climate.datas.DroneReading")
+@Label("Leitura do drone")
+@Category({"Climate Datas", "DataCenter"})
+public class DroneReadingEvent extends ReadingEvent {
+    @Label("Servidor")
+    public String server;
+}
@@ -0,0 +1,14 @@
+package com.climate.datas.utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Envio de uma mensagem JSON por uma conexão TCP (Communicator.sendJsonMessage)
+@Name("com.climate.datas.MessageSent")
+@Label("Mensagem enviada")
+@Category({"Climate Datas", "Rede"})
+public class MessageSentEvent extends ReadingEvent {
+    @Label("Conexão")
+    public String connection;
+}
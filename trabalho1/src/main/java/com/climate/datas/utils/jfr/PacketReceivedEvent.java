@@ -0,0 +1,16 @@
+package com.climate.datas.utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Datagrama recebido pelo DataCenter, da chegada até o fim do tratamento de todas as suas leituras
+@Name("com.climate.datas.PacketReceived")
+@Label("Pacote recebido")
+@Category({"Climate Datas", "DataCenter"})
+public class PacketReceivedEvent extends ReadingEvent {
+    @Label("Leituras")
+    @Description("Leituras no datagrama; drone e sequência são os da primeira")
+    public int readings;
+}
@@ -0,0 +1,40 @@
+package com.climate.datas.utils.jfr;
+
+import com.climate.datas.utils.drone.DatagramDrone;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/*
+ * Base dos eventos JFR do caminho de uma leitura (drone -> DataCenter -> Server -> User).
+ *
+ * Os eventos ficam desativados até uma gravação os habilitar; nesse caso begin(),
+ * commit() e shouldCommit() custam quase nada. Os campos só devem ser preenchidos
+ * depois de shouldCommit(), para não pagar pela leitura quando o evento é descartado.
+ *   java -XX:StartFlightRecording:filename=trace.jfr,settings=profile ...
+ */
+@Category({"Climate Datas", "Pipeline"})
+public abstract class ReadingEvent extends Event {
+    @Label("Drone")
+    public String droneId;
+
+    @Label("Sequência")
+    @Description("Número de sequência da leitura no drone (0: sem sequência)")
+    public long sequence;
+
+    @Label("Tamanho")
+    @Description("Bytes da mensagem nesta etapa")
+    @DataAmount
+    public int bytes;
+
+    public void set(DatagramDrone reading, int bytes) {
+        if (reading != null && reading.getDroneId() != null) {
+            this.droneId = reading.getDroneId().getValue();
+            this.sequence = reading.getSequence();
+        }
+        this.bytes = bytes;
+    }
+}
@@ -0,0 +1,17 @@
+package com.climate.datas.utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Uma etapa do pipeline do Server para uma leitura: decode, store ou multicast
+@Name("com.climate.datas.ServerStage")
+@Label("Etapa do servidor")
+@Category({"Climate Datas", "Server"})
+public class ServerStageEvent extends ReadingEvent {
+    @Label("Servidor")
+    public String server;
+
+    @Label("Etapa")
+    public String stage;
+}
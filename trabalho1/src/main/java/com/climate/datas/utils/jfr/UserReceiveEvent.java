@@ -0,0 +1,14 @@
+package com.climate.datas.utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Leitura recebida do grupo multicast e exibida pelo usuário (User.printMessage)
+@Name("com.climate.datas.UserReceive")
+@Label("Leitura recebida pelo usuário")
+@Category({"Climate Datas", "User"})
+public class UserReceiveEvent extends ReadingEvent {
+    @Label("Usuário")
+    public String user;
+}
@@ -0,0 +1,127 @@
+package com.climate.datas.datacenter;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.climate.datas.datacenter.LossDetector.Outcome;
+import com.climate.datas.utils.drone.DroneId;
+
+class LossDetectorTest {
+    private static final int WINDOW = 1024;                 // Padrão do DataCenter (-Ddatacenter.loss.window)
+    private static final DroneId DRONE = DroneId.NORTE;
+    private static final long BOOT = 1_000;
+    private static final long REBOOT = 2_000;
+
+    private static Outcome record(LossDetector detector, long epoch, long sequence) {
+        return detector.record(DRONE, 0, epoch, sequence, s -> { });
+    }
+
+    // Depois de 500 leituras o drone reinicia: a nova época aceita todas as leituras a partir da 1
+    @Test
+    void newEpochRestartsCountingBelowHighest() {
+        LossDetector detector = new LossDetector(WINDOW);
+        for (long s = 1; s <= 500; s++) {
+            assertEquals(Outcome.IN_ORDER, record(detector, BOOT, s));
+        }
+        assertEquals(Outcome.RESTART, record(detector, REBOOT, 1));
+        for (long s = 2; s <= 500; s++) {
+            assertEquals(Outcome.IN_ORDER, record(detector, REBOOT, s));
+        }
+
+        LossDetector.Stats stats = detector.getStats(DRONE);
+        assertEquals(1000, stats.received());
+        assertEquals(0, stats.duplicates());
+        assertEquals(1, stats.restarts());
+        assertEquals(0, stats.lost());
+    }
+
+    // A mesma sequência na mesma época é duplicata e não conta como recebida de novo
+    @Test
+    void repeatedSequenceIsDuplicate() {
+        LossDetector detector = new LossDetector(WINDOW);
+        for (long s = 1; s <= 10; s++) {
+            record(detector, BOOT, s);
+        }
+        assertEquals(Outcome.DUPLICATE, record(detector, BOOT, 7));
+        assertEquals(Outcome.DUPLICATE, record(detector, BOOT, 10));
+
+        LossDetector.Stats stats = detector.getStats(DRONE);
+        assertEquals(10, stats.received());
+        assertEquals(2, stats.duplicates());
+    }
+
+    // Uma leitura adiantada abre lacunas (entregues para o NACK); a atrasada preenche a sua
+    @Test
+    void gapIsReportedAndRecovered() {
+        LossDetector detector = new LossDetector(WINDOW);
+        record(detector, BOOT, 1);
+        LongStream.Builder gaps = LongStream.builder();
+        assertEquals(Outcome.GAP, detector.record(DRONE, 0, BOOT, 5, gaps::add));
+        assertArrayEquals(new long[]{2, 3, 4}, gaps.build().toArray());
+
+        assertEquals(Outcome.RECOVERED, record(detector, BOOT, 3));
+        assertEquals(Outcome.DUPLICATE, record(detector, BOOT, 3));
+
+        LossDetector.Stats stats = detector.getStats(DRONE);
+        assertEquals(1, stats.recovered());
+        assertEquals(2, stats.outstanding());
+    }
+
+    // Lacunas abertas quando o drone reinicia não serão mais preenchidas: viram perdas
+    @Test
+    void restartTurnsOpenGapsIntoLosses() {
+        LossDetector detector = new LossDetector(WINDOW);
+        record(detector, BOOT, 1);
+        record(detector, BOOT, 5);
+        assertEquals(Outcome.RESTART, record(detector, REBOOT, 1));
+
+        LossDetector.Stats stats = detector.getStats(DRONE);
+        assertEquals(0, stats.outstanding());
+        assertEquals(3, stats.lost());
+    }
+
+    // Leitura atrasada da execução anterior não reinicia a contagem de novo
+    @Test
+    void olderEpochIsStale() {
+        LossDetector detector = new LossDetector(WINDOW);
+        record(detector, BOOT, 1);
+        record(detector, REBOOT, 1);
+        assertEquals(Outcome.STALE, record(detector, BOOT, 2));
+        assertEquals(Outcome.IN_ORDER, record(detector, REBOOT, 2));
+
+        LossDetector.Stats stats = detector.getStats(DRONE);
+        assertEquals(1, stats.restarts());
+        assertEquals(1, stats.stale());
+    }
+
+    // Sem época, a sequência 1 depois de outras é o reinício
+    @Test
+    void sequenceOneRestartsWithoutEpoch() {
+        LossDetector detector = new LossDetector(WINDOW);
+        for (long s = 1; s <= 100; s++) {
+            record(detector, 0, s);
+        }
+        assertEquals(Outcome.RESTART, record(detector, 0, 1));
+        assertEquals(Outcome.IN_ORDER, record(detector, 0, 2));
+    }
+
+    // Membros da mesma região contam suas sequências separadamente
+    @Test
+    void membersOfRegionAreTrackedSeparately() {
+        LossDetector detector = new LossDetector(WINDOW);
+        for (long s = 1; s <= 100; s++) {
+            for (int member = 0; member < 10; member++) {
+                assertEquals(Outcome.IN_ORDER, detector.record(DRONE, member, BOOT, s, gap -> { }));
+            }
+        }
+
+        LossDetector.Stats stats = detector.getStats(DRONE);
+        assertEquals(10, stats.members());
+        assertEquals(1000, stats.received());
+        assertEquals(0, stats.duplicates());
+    }
+}
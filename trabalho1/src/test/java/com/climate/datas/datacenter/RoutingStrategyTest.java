@@ -0,0 +1,69 @@
+package com.climate.datas.datacenter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.climate.datas.utils.ServerInfo;
+import com.climate.datas.utils.drone.DatagramDrone;
+import com.climate.datas.utils.drone.DroneId;
+
+class RoutingStrategyTest {
+    private static final int MEMBERS = 250;                 // Drones por região, como a frota padrão (1000 drones)
+
+    private static List<ServerStats> servers(int count) {
+        List<ServerStats> servers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            servers.add(new ServerStats(new ServerInfo("127.0.0.1", 50001 + i), () -> 0));
+        }
+        return servers;
+    }
+
+    private static List<DatagramDrone> fleet() {
+        List<DatagramDrone> fleet = new ArrayList<>();
+        for (int member = 0; member < MEMBERS; member++) {
+            for (DroneId droneId : DroneId.values()) {
+                DatagramDrone reading = new DatagramDrone(droneId, 1, 0, 0, 0, 0);
+                reading.setMember(member);
+                fleet.add(reading);
+            }
+        }
+        return fleet;
+    }
+
+    // Com mais servidores que regiões, os membros de cada região se espalham por todos eles
+    @Test
+    void hashSpreadsMembersOverAllServers() {
+        List<ServerStats> servers = servers(6);
+        int[] counts = new int[servers.size()];
+        for (DatagramDrone reading : fleet()) {
+            counts[RoutingStrategy.HASH.select(reading, servers)]++;
+        }
+        for (int count : counts) {
+            assertTrue(count > 0, "Servidor sem nenhum drone");
+        }
+    }
+
+    // Quando um servidor sai, só os drones dele mudam de lugar; quando volta, todos retornam
+    @Test
+    void hashIsStickyWhenServerLeavesAndReturns() {
+        List<ServerStats> all = servers(5);
+        ServerStats removed = all.get(2);
+        List<ServerStats> available = new ArrayList<>(all);
+        available.remove(removed);
+
+        for (DatagramDrone reading : fleet()) {
+            ServerStats before = all.get(RoutingStrategy.HASH.select(reading, all));
+            ServerStats during = available.get(RoutingStrategy.HASH.select(reading, available));
+            ServerStats after = all.get(RoutingStrategy.HASH.select(reading, all));
+            if (before != removed) {
+                assertEquals(before, during);
+            }
+            assertEquals(before, after);
+        }
+    }
+}
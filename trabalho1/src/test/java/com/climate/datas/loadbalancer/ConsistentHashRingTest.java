@@ -0,0 +1,84 @@
+package com.climate.datas.loadbalancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.climate.datas.utils.ServerInfo;
+
+class ConsistentHashRingTest {
+    private static final int USERS = 100_000;
+    private static final int VNODES = 160;                  // Padrão do LoadBalancer (-Dloadbalancer.vnodes)
+    private static final double TOLERANCE = 0.2;            // Desvio relativo aceito na fração movida
+
+    private static List<ServerInfo> groups(int count) {
+        List<ServerInfo> groups = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            groups.add(new ServerInfo("230.0.0." + (i + 2), 50001 + i));
+        }
+        return groups;
+    }
+
+    // Ao adicionar um grupo, só ~1/(n+1) dos usuários mudam, e todos vão para o grupo novo
+    @Test
+    void addingGroupMovesOnlyItsShareOfUsers() {
+        for (int n : new int[]{2, 3, 5, 8}) {
+            ConsistentHashRing<ServerInfo> before = ConsistentHashRing.of(groups(n), VNODES);
+            ServerInfo added = new ServerInfo("230.0.0.200", 50200);
+            ConsistentHashRing<ServerInfo> after = before.with(added, 1);
+
+            int moved = 0;
+            for (int user = 0; user < USERS; user++) {
+                String id = String.valueOf(user);
+                ServerInfo previous = before.get(id);
+                ServerInfo current = after.get(id);
+                if (!previous.equals(current)) {
+                    moved++;
+                    assertSame(added, current, "Usuário " + id + " mudou para um grupo que já existia");
+                }
+            }
+
+            double expected = 1.0 / (n + 1);
+            double fraction = (double) moved / USERS;
+            assertEquals(expected, fraction, expected * TOLERANCE,
+                    "Fração movida com " + n + " -> " + (n + 1) + " grupos");
+        }
+    }
+
+    // Ao remover um grupo, só os usuários dele mudam de grupo
+    @Test
+    void removingGroupMovesOnlyItsUsers() {
+        List<ServerInfo> groups = groups(4);
+        ConsistentHashRing<ServerInfo> before = ConsistentHashRing.of(groups, VNODES);
+        ServerInfo removed = groups.get(1);
+        ConsistentHashRing<ServerInfo> after = before.without(removed);
+
+        for (int user = 0; user < USERS; user++) {
+            String id = String.valueOf(user);
+            ServerInfo previous = before.get(id);
+            if (!previous.equals(removed)) {
+                assertEquals(previous, after.get(id), "Usuário " + id + " mudou sem que seu grupo fosse removido");
+            }
+        }
+    }
+
+    // Um grupo com peso 2 recebe cerca do dobro de usuários de um grupo com peso 1
+    @Test
+    void weightScalesShareOfUsers() {
+        List<ServerInfo> groups = groups(2);
+        ConsistentHashRing<ServerInfo> ring = ConsistentHashRing.of(groups, VNODES).with(groups.get(1), 2);
+
+        int heavy = 0;
+        for (int user = 0; user < USERS; user++) {
+            if (ring.get(String.valueOf(user)).equals(groups.get(1))) {
+                heavy++;
+            }
+        }
+        double expected = 2.0 / 3;
+        assertEquals(expected, (double) heavy / USERS, expected * TOLERANCE / 2);
+    }
+}